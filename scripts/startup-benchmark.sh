@@ -0,0 +1,63 @@
+#!/usr/bin/env bash
+# Compares startup time and resident memory of the default configuration with the prod profile.
+#
+# Every run starts a fresh JVM and measures the time until the first API request is answered,
+# which includes the beans the prod profile only creates on first use, then reads the resident
+# set size of the JVM from /proc (Linux only). Medians over all runs are printed per profile.
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+#
+# Starts build/libs/elevator-0.0.1-SNAPSHOT.jar, build it with ./gradlew bootJar. Set LAUNCH to
+# start the application another way, for example with an exploded classpath, and PORT to use
+# another port than 18080.
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+JAR=${JAR:-build/libs/elevator-0.0.1-SNAPSHOT.jar}
+LAUNCH=${LAUNCH:-java -jar $JAR}
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+# Prints milliseconds until the first request was answered, Spring's own startup time in
+# milliseconds and the resident set size in MiB
+measure() {
+  local startNanos pid readyNanos rssKib springMillis
+  startNanos=$(date +%s%N)
+  # shellcheck disable=SC2086
+  $LAUNCH --server.port="$PORT" "$@" > "$LOG" 2>&1 &
+  pid=$!
+  until curl -sf "http://localhost:$PORT/elevator/state" > /dev/null; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      cat "$LOG" >&2
+      echo "Application exited before answering" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  readyNanos=$(date +%s%N)
+  rssKib=$(awk '/^VmRSS:/ {print $2}' "/proc/$pid/status")
+  kill "$pid"
+  wait "$pid" || true
+  springMillis=$(sed -n 's/.*Started ElevatorApplication in \([0-9.]*\) seconds.*/\1/p' "$LOG" \
+    | awk '{printf "%d", $1 * 1000}')
+  echo "$(((readyNanos - startNanos) / 1000000)) $springMillis $((rssKib / 1024))"
+}
+
+median() {
+  sort -n | awk '{values[NR] = $1} END {print values[int((NR + 1) / 2)]}'
+}
+
+report() {
+  local name=$1 results
+  shift
+  results=$(for _ in $(seq "$RUNS"); do measure "$@"; done)
+  printf '%-8s %10s ms %12s ms %8s MiB\n' "$name" \
+    "$(cut -d' ' -f1 <<< "$results" | median)" \
+    "$(cut -d' ' -f2 <<< "$results" | median)" \
+    "$(cut -d' ' -f3 <<< "$results" | median)"
+}
+
+printf '%-8s %13s %15s %12s\n' profile first-request spring-started rss
+report default
+report prod --spring.profiles.active=prod
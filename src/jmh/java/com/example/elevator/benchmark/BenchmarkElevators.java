@@ -0,0 +1,35 @@
+package com.example.elevator.benchmark;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.time.TimeSource;
+import java.util.Random;
+
+final class BenchmarkElevators {
+
+  static final int FLOOR_TIME = 1;
+  static final int DOOR_OPENING_TIME = 3;
+
+  private BenchmarkElevators() {
+  }
+
+  /**
+   * Creates a car where each floor has an order of each type with the given probability.
+   */
+  static Elevator withRandomOrders(int id, int totalFloors, double orderDensity, Random random,
+      TimeSource timeSource) {
+    Elevator elevator = new Elevator(id, totalFloors, FLOOR_TIME, DOOR_OPENING_TIME, timeSource);
+    fillOrders(elevator, orderDensity, random);
+    return elevator;
+  }
+
+  static void fillOrders(Elevator elevator, double orderDensity, Random random) {
+    for (int floor = 1; floor <= elevator.getTotalFloors(); floor++) {
+      for (OrderType orderType : OrderType.values()) {
+        if (random.nextDouble() < orderDensity) {
+          elevator.getOrders().add(floor, orderType);
+        }
+      }
+    }
+  }
+}
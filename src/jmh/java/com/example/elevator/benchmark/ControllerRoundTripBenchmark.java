@@ -0,0 +1,67 @@
+package com.example.elevator.benchmark;
+
+import com.example.elevator.building.BuildingRegistry;
+import com.example.elevator.controller.ElevatorController;
+import com.example.elevator.dispatch.DispatchStrategy;
+import com.example.elevator.dispatch.EstimatedTimeDispatchStrategy;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.service.ElevatorService;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.VirtualTimeSource;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * Request handling through the Spring MVC dispatcher, from request mapping and argument
+ * conversion to the formatted response, without the network stack.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerRoundTripBenchmark {
+
+  private MockMvc mockMvc;
+  private int floor;
+
+  @Setup
+  public void setUp() {
+    EstimatedTimeCalculator calculator = new EstimatedTimeCalculator();
+    DispatchStrategy dispatchStrategy = new EstimatedTimeDispatchStrategy(calculator);
+    VirtualTimeSource timeSource = new VirtualTimeSource();
+    ElevatorBank bank = new ElevatorBank(6, 60, BenchmarkElevators.FLOOR_TIME,
+        BenchmarkElevators.DOOR_OPENING_TIME, dispatchStrategy, timeSource);
+    BuildingRegistry registry = new BuildingRegistry(bank, new ElevatorService(bank, calculator),
+        dispatchStrategy, calculator, timeSource, List.of(), 1, 0);
+    mockMvc = MockMvcBuilders.standaloneSetup(new ElevatorController(registry)).build();
+  }
+
+  @Benchmark
+  public MvcResult addOrder() throws Exception {
+    floor = floor % 60 + 1;
+    return mockMvc.perform(MockMvcRequestBuilders.post("/elevator/UP/" + floor)).andReturn();
+  }
+
+  @Benchmark
+  public MvcResult getEstimatedTime() throws Exception {
+    floor = floor % 60 + 1;
+    return mockMvc.perform(MockMvcRequestBuilders.get("/elevator/estimatedtime/" + floor))
+        .andReturn();
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.elevator.benchmark;
+
+import com.example.elevator.dispatch.DispatchStrategyType;
+import com.example.elevator.dispatch.EstimatedTimeDispatchStrategy;
+import com.example.elevator.dispatch.NearestCarDispatchStrategy;
+import com.example.elevator.dispatch.ZoningDispatchStrategy;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.VirtualTimeSource;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of assigning a hall call in a bank of busy cars.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+  @Param({"2", "6", "12"})
+  int cars;
+
+  @Param({"60", "120"})
+  int totalFloors;
+
+  @Param({"NEAREST_CAR", "ESTIMATED_TIME", "ZONING"})
+  DispatchStrategyType strategy;
+
+  private ElevatorBank bank;
+  private int[] floors;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    EstimatedTimeDispatchStrategy estimatedTime =
+        new EstimatedTimeDispatchStrategy(new EstimatedTimeCalculator());
+    bank = new ElevatorBank(cars, totalFloors, BenchmarkElevators.FLOOR_TIME,
+        BenchmarkElevators.DOOR_OPENING_TIME,
+        strategy == DispatchStrategyType.NEAREST_CAR ? new NearestCarDispatchStrategy()
+            : strategy == DispatchStrategyType.ZONING ? new ZoningDispatchStrategy(estimatedTime)
+                : estimatedTime,
+        new VirtualTimeSource());
+
+    Random random = new Random(42);
+    for (Elevator elevator : bank.getElevators()) {
+      BenchmarkElevators.fillOrders(elevator, 0.1, random);
+      elevator.setCurrentFloor(1 + random.nextInt(totalFloors));
+      elevator.setState(random.nextBoolean() ? ElevatorState.GOING_UP : ElevatorState.GOING_DOWN);
+    }
+    floors = random.ints(1024, 1, totalFloors + 1).toArray();
+  }
+
+  @Benchmark
+  public Elevator assignHallCall() {
+    next = (next + 1) & (floors.length - 1);
+    return bank.assign(floors[next], (next & 1) == 0 ? OrderType.UP : OrderType.DOWN);
+  }
+}
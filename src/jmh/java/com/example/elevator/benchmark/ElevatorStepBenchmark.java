@@ -0,0 +1,55 @@
+package com.example.elevator.benchmark;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.time.VirtualTimeSource;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one floor tick of a car, which includes serving the floor it arrives at. Orders are
+ * refilled whenever the car runs out of work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElevatorStepBenchmark {
+
+  @Param({"10", "60", "120"})
+  int totalFloors;
+
+  @Param({"0.05", "0.25"})
+  double orderDensity;
+
+  private Elevator elevator;
+  private Random random;
+
+  @Setup
+  public void setUp() {
+    random = new Random(42);
+    elevator = BenchmarkElevators.withRandomOrders(0, totalFloors, orderDensity, random,
+        new VirtualTimeSource());
+  }
+
+  @Benchmark
+  public long step() {
+    long busyMillis = elevator.step();
+    if (busyMillis == Elevator.NO_ACTION) {
+      BenchmarkElevators.fillOrders(elevator, orderDensity, random);
+    }
+    return busyMillis;
+  }
+}
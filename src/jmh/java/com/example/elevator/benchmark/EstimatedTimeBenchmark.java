@@ -0,0 +1,68 @@
+package com.example.elevator.benchmark;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.VirtualTimeSource;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a single ETA estimate for a car halfway up the building, going up, with a share of all
+ * possible orders pending.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EstimatedTimeBenchmark {
+
+  @Param({"10", "60", "120"})
+  int totalFloors;
+
+  @Param({"0.05", "0.25", "0.75"})
+  double orderDensity;
+
+  private Elevator elevator;
+  private EstimatedTimeCalculator calculator;
+  private int targetFloor;
+
+  @Setup
+  public void setUp() {
+    elevator = BenchmarkElevators.withRandomOrders(0, totalFloors, orderDensity, new Random(42),
+        new VirtualTimeSource());
+    elevator.setCurrentFloor(totalFloors / 2);
+    elevator.setState(ElevatorState.GOING_UP);
+    calculator = new EstimatedTimeCalculator();
+  }
+
+  @Benchmark
+  public int estimateTimeToFloor() {
+    // Alternate between floors ahead of and behind the car
+    targetFloor = targetFloor % totalFloors + 1;
+    return calculator.getEstimatedTimeToFloor(elevator, targetFloor);
+  }
+
+  @Benchmark
+  public int estimateAfterOrderChange() {
+    targetFloor = targetFloor % totalFloors + 1;
+    elevator.addOrder(targetFloor, OrderType.NEUTRAL);
+    int estimate = calculator.getEstimatedTimeToFloor(elevator, targetFloor);
+    elevator.getOrders().remove(targetFloor, OrderType.NEUTRAL);
+    return estimate;
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.elevator.benchmark;
+
+import com.example.elevator.ElevatorApplication;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Requests per second and latency percentiles of the servlet and reactive stacks, over HTTP
+ * against the full application on a random port. Throughput mode reports requests per second,
+ * sample mode the p99 latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class HttpStackBenchmark {
+
+  private static final int TOTAL_FLOORS = 10;
+
+  @Param({"servlet", "reactive"})
+  public String stack;
+
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private URI estimatedTimes;
+  private String baseUri;
+
+  @Setup
+  public void setUp() {
+    SpringApplicationBuilder application = new SpringApplicationBuilder(ElevatorApplication.class)
+        .properties("server.port=0", "elevator.audit.enabled=false");
+    if ("reactive".equals(stack)) {
+      application.profiles("reactive");
+    }
+    context = application.run();
+    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+    baseUri = "http://localhost:" + port + "/elevator/";
+    estimatedTimes = URI.create(baseUri + "estimatedtime");
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @State(Scope.Thread)
+  public static class Floor {
+
+    int floor;
+
+    URI next(String baseUri, String path) {
+      floor = floor % TOTAL_FLOORS + 1;
+      return URI.create(baseUri + path + floor);
+    }
+  }
+
+  @Benchmark
+  public String addOrder(Floor floor) throws IOException, InterruptedException {
+    return send(HttpRequest.newBuilder(floor.next(baseUri, "NEUTRAL/"))
+        .POST(HttpRequest.BodyPublishers.noBody()).build());
+  }
+
+  @Benchmark
+  public String getEstimatedTimeToFloor(Floor floor) throws IOException, InterruptedException {
+    return send(HttpRequest.newBuilder(floor.next(baseUri, "estimatedtime/")).GET().build());
+  }
+
+  @Benchmark
+  public String getEstimatedTimes() throws IOException, InterruptedException {
+    return send(HttpRequest.newBuilder(estimatedTimes).GET().build());
+  }
+
+  private String send(HttpRequest request) throws IOException, InterruptedException {
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Unexpected response " + response.statusCode());
+    }
+    return response.body();
+  }
+}
@@ -0,0 +1,74 @@
+package com.example.elevator.benchmark;
+
+import com.example.elevator.dispatch.EstimatedTimeDispatchStrategy;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.service.ElevatorService;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.VirtualTimeSource;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request threads adding orders through the service while a movement thread steps the cars and
+ * serves them, as in production but without travel and door times.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderIngestBenchmark {
+
+  @Param({"1", "6"})
+  int cars;
+
+  @Param({"120"})
+  int totalFloors;
+
+  private ElevatorBank bank;
+  private ElevatorService service;
+
+  @Setup
+  public void setUp() {
+    EstimatedTimeCalculator calculator = new EstimatedTimeCalculator();
+    bank = new ElevatorBank(cars, totalFloors, 0, 0,
+        new EstimatedTimeDispatchStrategy(calculator), new VirtualTimeSource());
+    service = new ElevatorService(bank, calculator);
+  }
+
+  @Benchmark
+  @Group("ingest")
+  @GroupThreads(7)
+  public Elevator addOrder() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    return service.addDestinationFloor(1 + random.nextInt(totalFloors),
+        random.nextBoolean() ? OrderType.UP : OrderType.DOWN);
+  }
+
+  @Benchmark
+  @Group("ingest")
+  @GroupThreads(1)
+  public long step() {
+    long busyMillis = 0;
+    for (Elevator elevator : bank.getElevators()) {
+      busyMillis += elevator.step();
+    }
+    return busyMillis;
+  }
+}
@@ -0,0 +1,8 @@
+package com.example.elevator.audit;
+
+public enum AuditEventType {
+  ORDER_ADDED,
+  STATE_CHANGED,
+  FLOOR_REACHED,
+  DOOR_OPENED;
+}
@@ -0,0 +1,172 @@
+package com.example.elevator.audit;
+
+import com.example.elevator.building.BuildingListener;
+import com.example.elevator.building.BuildingRegistry;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorListener;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.time.TimeSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Audit trail of car events, written to the {@code elevator.audit} logger as one
+ * {@code key=value} line per event.
+ *
+ * <p>Request and movement threads only put the event into an {@link AuditRingBuffer}; a single
+ * background thread formats and logs it. When logging falls behind and the buffer is full, events
+ * are dropped and counted rather than slowing the cars down. Which event types are kept is
+ * configurable, floor arrivals can be sampled, and nothing is buffered while the audit logger is
+ * disabled.
+ */
+@Component
+@ConditionalOnProperty(name = "elevator.audit.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditLog implements ElevatorListener, BuildingListener {
+
+  private static final Logger audit = LoggerFactory.getLogger("elevator.audit");
+
+  private final ElevatorBank bank;
+  private final TimeSource timeSource;
+  private final AuditRingBuffer buffer;
+  private final Set<AuditEventType> events;
+  private final int floorSampleRate;
+  private final long flushMillis;
+  private final Map<Elevator, String> buildings = new ConcurrentHashMap<>();
+  private final Counter written;
+  private final Counter dropped;
+  private final StringBuilder line = new StringBuilder(); // Only used by the flushing thread
+  private ScheduledExecutorService executor;
+
+  @Autowired
+  public AuditLog(ElevatorBank bank, TimeSource timeSource, MeterRegistry registry,
+      @Value("${elevator.audit.capacity:8192}") int capacity,
+      @Value("${elevator.audit.events:ORDER_ADDED,STATE_CHANGED,FLOOR_REACHED,DOOR_OPENED}")
+          Set<AuditEventType> events,
+      @Value("${elevator.audit.floorSampleRate:1}") int floorSampleRate,
+      @Value("${elevator.audit.flushMillis:50}") long flushMillis) {
+    this.bank = bank;
+    this.timeSource = timeSource;
+    this.buffer = new AuditRingBuffer(capacity);
+    this.events = events.isEmpty() ? EnumSet.noneOf(AuditEventType.class) : EnumSet.copyOf(events);
+    this.floorSampleRate = Math.max(floorSampleRate, 1);
+    this.flushMillis = flushMillis;
+    this.written = Counter.builder("elevator.audit.written")
+        .description("Audit events logged")
+        .register(registry);
+    this.dropped = Counter.builder("elevator.audit.dropped")
+        .description("Audit events dropped because the buffer was full")
+        .register(registry);
+  }
+
+  @PostConstruct
+  public void start() {
+    track(BuildingRegistry.DEFAULT_BUILDING, bank);
+    if (flushMillis > 0) {
+      executor = Executors.newSingleThreadScheduledExecutor();
+      executor.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    if (executor != null) {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+    flush();
+  }
+
+  @Override
+  public void onBuildingAdded(String buildingId, ElevatorBank bank) {
+    track(buildingId, bank);
+  }
+
+  @Override
+  public void onBuildingRemoved(String buildingId, ElevatorBank bank) {
+    for (Elevator elevator : bank.getElevators()) {
+      buildings.remove(elevator);
+    }
+  }
+
+  @Override
+  public void onOrderAdded(Elevator elevator, int floor, OrderType orderType) {
+    record(AuditEventType.ORDER_ADDED, elevator, floor, orderType);
+  }
+
+  @Override
+  public void onStateChanged(Elevator elevator, ElevatorState state) {
+    record(AuditEventType.STATE_CHANGED, elevator, elevator.getCurrentFloor(), state);
+  }
+
+  @Override
+  public void onFloorReached(Elevator elevator, int floor) {
+    if (floorSampleRate == 1 || ThreadLocalRandom.current().nextInt(floorSampleRate) == 0) {
+      record(AuditEventType.FLOOR_REACHED, elevator, floor, elevator.getState());
+    }
+  }
+
+  @Override
+  public void onDoorOpened(Elevator elevator, int floor) {
+    record(AuditEventType.DOOR_OPENED, elevator, floor, elevator.getState());
+  }
+
+  /**
+   * Logs all buffered events. Runs on the flushing thread, and at shutdown.
+   */
+  synchronized void flush() {
+    int count = buffer.drain(this::write);
+    written.increment(count);
+  }
+
+  private void track(String buildingId, ElevatorBank bank) {
+    for (Elevator elevator : bank.getElevators()) {
+      buildings.put(elevator, buildingId);
+      elevator.addListener(this);
+    }
+  }
+
+  private void record(AuditEventType type, Elevator elevator, int floor, Enum<?> detail) {
+    if (!events.contains(type) || !audit.isInfoEnabled()) {
+      return;
+    }
+    String building = buildings.get(elevator);
+    if (building == null) {
+      return;
+    }
+    if (!buffer.offer(timeSource.currentTimeMillis(), type, building, elevator.getId(), floor,
+        detail)) {
+      dropped.increment();
+    }
+  }
+
+  private void write(long timeMillis, AuditEventType type, String building, int elevator,
+      int floor, Enum<?> detail) {
+    line.setLength(0);
+    line.append("event=").append(type)
+        .append(" building=").append(building)
+        .append(" elevator=").append(elevator)
+        .append(" floor=").append(floor)
+        .append(AuditEventType.ORDER_ADDED.equals(type) ? " orderType=" : " state=").append(detail)
+        .append(" time=").append(timeMillis);
+    audit.info(line.toString());
+  }
+}
@@ -0,0 +1,96 @@
+package com.example.elevator.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer, single-consumer queue of audit events. Events are stored field by field
+ * in preallocated arrays, so offering one does not allocate, and a full buffer drops the event
+ * instead of blocking the producer.
+ *
+ * <p>A producer claims a sequence number, writes the fields into the slot of that number and then
+ * publishes the number in the slot. The consumer reads slots in sequence order and stops at the
+ * first one not published yet.
+ */
+class AuditRingBuffer {
+
+  private final int mask;
+  private final long[] timestamps;
+  private final AuditEventType[] types;
+  private final String[] buildings;
+  private final int[] elevators;
+  private final int[] floors;
+  private final Enum<?>[] details;
+  private final AtomicLongArray published; // Sequence number last published in each slot
+  private final AtomicLong claimed = new AtomicLong();
+  private volatile long consumed; // Written by the consumer only
+
+  AuditRingBuffer(int capacity) {
+    int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+    this.mask = size - 1;
+    this.timestamps = new long[size];
+    this.types = new AuditEventType[size];
+    this.buildings = new String[size];
+    this.elevators = new int[size];
+    this.floors = new int[size];
+    this.details = new Enum<?>[size];
+    this.published = new AtomicLongArray(size);
+    for (int slot = 0; slot < size; slot++) {
+      published.set(slot, -1);
+    }
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Adds an event, returning false if the buffer is full.
+   */
+  boolean offer(long timeMillis, AuditEventType type, String building, int elevator, int floor,
+      Enum<?> detail) {
+    long sequence;
+    do {
+      sequence = claimed.get();
+      if (sequence - consumed > mask) {
+        return false;
+      }
+    } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+    int slot = (int) sequence & mask;
+    timestamps[slot] = timeMillis;
+    types[slot] = type;
+    buildings[slot] = building;
+    elevators[slot] = elevator;
+    floors[slot] = floor;
+    details[slot] = detail;
+    published.set(slot, sequence);
+    return true;
+  }
+
+  /**
+   * Hands all published events to the consumer, in order. Must only be called by one thread at a
+   * time. Returns the number of events consumed.
+   */
+  int drain(Consumer consumer) {
+    int drained = 0;
+    long sequence = consumed;
+    int slot = (int) sequence & mask;
+    while (published.get(slot) == sequence) {
+      consumer.accept(timestamps[slot], types[slot], buildings[slot], elevators[slot],
+          floors[slot], details[slot]);
+      buildings[slot] = null;
+      details[slot] = null;
+      consumed = ++sequence;
+      slot = (int) sequence & mask;
+      drained++;
+    }
+    return drained;
+  }
+
+  interface Consumer {
+
+    void accept(long timeMillis, AuditEventType type, String building, int elevator, int floor,
+        Enum<?> detail);
+  }
+}
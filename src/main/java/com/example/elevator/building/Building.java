@@ -0,0 +1,13 @@
+package com.example.elevator.building;
+
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.service.ElevatorService;
+import lombok.Value;
+
+@Value
+public class Building {
+
+  String id;
+  ElevatorBank bank;
+  ElevatorService service;
+}
@@ -0,0 +1,14 @@
+package com.example.elevator.building;
+
+import com.example.elevator.elevator.ElevatorBank;
+
+/**
+ * Notified when buildings are added to or removed from the {@link BuildingRegistry}. The default
+ * building exists before the registry and is not announced.
+ */
+public interface BuildingListener {
+
+  void onBuildingAdded(String buildingId, ElevatorBank bank);
+
+  void onBuildingRemoved(String buildingId, ElevatorBank bank);
+}
@@ -0,0 +1,147 @@
+package com.example.elevator.building;
+
+import com.example.elevator.demand.CallStatistics;
+import com.example.elevator.dispatch.DispatchStrategy;
+import com.example.elevator.dto.BuildingRequest;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.exception.InvalidBuildingException;
+import com.example.elevator.service.ElevatorService;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.TimeSource;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Elevator banks of all buildings hosted by this node, keyed by building id. The bank configured
+ * in the application properties is registered as the {@link #DEFAULT_BUILDING}, other buildings
+ * are added at runtime with their own floor count and timings.
+ *
+ * <p>A building is only its bank and a service wrapping it. Dispatch strategy, estimated time
+ * calculator and time source are shared, and cars are driven by the shared scheduler, so a
+ * building costs a few kilobytes of heap and no threads.
+ *
+ * <p>Added buildings only count calls when {@code elevator.buildings.demandMinutes} is set, over
+ * that many minutes. Their counters take {@code minutes * floors * 12} bytes, allocated on the
+ * first call, so the window is meant to be far shorter than the default building's day.
+ */
+@Component
+@Slf4j
+public class BuildingRegistry {
+
+  public static final String DEFAULT_BUILDING = "default";
+
+  private static final Pattern BUILDING_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+  private static final int MAX_CARS = 64;
+  private static final int MAX_FLOORS = 1000;
+
+  private final Map<String, Building> buildings = new ConcurrentHashMap<>();
+  private final DispatchStrategy dispatchStrategy;
+  private final EstimatedTimeCalculator estimatedTimeCalculator;
+  private final TimeSource timeSource;
+  private final List<BuildingListener> listeners;
+  private final int maxBuildings;
+  private final int demandMinutes; // Window of the call statistics of added buildings, 0 if none
+
+  @Autowired
+  public BuildingRegistry(ElevatorBank defaultBank, ElevatorService defaultService,
+      DispatchStrategy dispatchStrategy, EstimatedTimeCalculator estimatedTimeCalculator,
+      TimeSource timeSource, List<BuildingListener> listeners,
+      @Value("${elevator.buildings.max:10000}") int maxBuildings,
+      @Value("${elevator.buildings.demandMinutes:0}") int demandMinutes) {
+    this.dispatchStrategy = dispatchStrategy;
+    this.estimatedTimeCalculator = estimatedTimeCalculator;
+    this.timeSource = timeSource;
+    this.listeners = listeners;
+    this.maxBuildings = maxBuildings;
+    this.demandMinutes = demandMinutes;
+    buildings.put(DEFAULT_BUILDING, new Building(DEFAULT_BUILDING, defaultBank, defaultService));
+  }
+
+  /**
+   * Returns the building with the given id, or the default building if the id is null.
+   */
+  public Building getBuilding(String buildingId) {
+    Building building = buildings.get(buildingId == null ? DEFAULT_BUILDING : buildingId);
+    if (building == null) {
+      throw new InvalidBuildingException("Unknown building " + buildingId);
+    }
+    return building;
+  }
+
+  public ElevatorService getService(String buildingId) {
+    return getBuilding(buildingId).getService();
+  }
+
+  public Set<String> getBuildingIds() {
+    return Collections.unmodifiableSet(buildings.keySet());
+  }
+
+  public Building addBuilding(String buildingId, BuildingRequest request) {
+    validate(buildingId, request);
+    if (buildings.size() >= maxBuildings) {
+      throw new InvalidBuildingException("At most " + maxBuildings + " buildings per node");
+    }
+
+    ElevatorBank bank = new ElevatorBank(request.getCars(), request.getTotalFloors(),
+        request.getFloorTimeInSeconds(), request.getDoorOpeningTimeInSeconds(), dispatchStrategy,
+        timeSource);
+    // Cars of added buildings carry passengers like those of the default building
+    bank.setLoadModel(getBuilding(DEFAULT_BUILDING).getBank().getLoadModel());
+    bank.setEnergyModel(getBuilding(DEFAULT_BUILDING).getBank().getEnergyModel());
+    if (demandMinutes > 0) {
+      bank.setCallStatistics(new CallStatistics(request.getTotalFloors(), demandMinutes,
+          timeSource));
+    }
+    Building building = new Building(buildingId, bank,
+        new ElevatorService(bank, estimatedTimeCalculator));
+    if (buildings.putIfAbsent(buildingId, building) != null) {
+      throw new InvalidBuildingException("Building " + buildingId + " already exists");
+    }
+
+    log.info("Added building {} with {} cars and {} floors", buildingId, request.getCars(),
+        request.getTotalFloors());
+    for (BuildingListener listener : listeners) {
+      listener.onBuildingAdded(buildingId, bank);
+    }
+    return building;
+  }
+
+  public void removeBuilding(String buildingId) {
+    if (DEFAULT_BUILDING.equals(buildingId)) {
+      throw new InvalidBuildingException("The default building cannot be removed");
+    }
+    Building building = buildings.remove(buildingId);
+    if (building == null) {
+      throw new InvalidBuildingException("Unknown building " + buildingId);
+    }
+
+    log.info("Removed building {}", buildingId);
+    for (BuildingListener listener : listeners) {
+      listener.onBuildingRemoved(buildingId, building.getBank());
+    }
+  }
+
+  private static void validate(String buildingId, BuildingRequest request) {
+    if (buildingId == null || !BUILDING_ID.matcher(buildingId).matches()) {
+      throw new InvalidBuildingException(
+          "Building id must be 1 to 64 letters, digits, dashes or underscores");
+    }
+    if (request.getCars() <= 0 || request.getCars() > MAX_CARS) {
+      throw new InvalidBuildingException("Cars must be between 1 and " + MAX_CARS);
+    }
+    if (request.getTotalFloors() < 2 || request.getTotalFloors() > MAX_FLOORS) {
+      throw new InvalidBuildingException("Floors must be between 2 and " + MAX_FLOORS);
+    }
+    if (request.getFloorTimeInSeconds() < 0 || request.getDoorOpeningTimeInSeconds() < 0) {
+      throw new InvalidBuildingException("Floor and door times must not be negative");
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.elevator.config;
+
+import com.example.elevator.audit.AuditLog;
+import com.example.elevator.demand.CallStatistics;
+import com.example.elevator.dispatch.DispatchStrategy;
+import com.example.elevator.dispatch.DispatchStrategyType;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.EnergyModel;
+import com.example.elevator.elevator.LoadModel;
+import com.example.elevator.events.ElevatorEventPublisher;
+import com.example.elevator.journal.OrderJournal;
+import com.example.elevator.metrics.ElevatorMetrics;
+import com.example.elevator.parking.IdleCarParking;
+import com.example.elevator.scheduler.ElevatorScheduler;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.TimeSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ElevatorConfig {
+
+  /**
+   * Beans that act on car events rather than on requests are created at startup even with
+   * {@code spring.main.lazy-initialization}: the scheduler moves the cars, and the journal, audit
+   * log, metrics, event stream and parking must see every event from the first order on.
+   */
+  @Bean
+  public static LazyInitializationExcludeFilter eagerCarListeners() {
+    return LazyInitializationExcludeFilter.forBeanTypes(ElevatorScheduler.class,
+        OrderJournal.class, AuditLog.class, ElevatorMetrics.class, ElevatorEventPublisher.class,
+        IdleCarParking.class);
+  }
+
+  @Bean
+  public DispatchStrategy dispatchStrategy(
+      @Value("${elevator.dispatchStrategy:ESTIMATED_TIME}") DispatchStrategyType type,
+      EstimatedTimeCalculator estimatedTimeCalculator) {
+    return type.create(estimatedTimeCalculator);
+  }
+
+  @Bean
+  public ElevatorBank elevatorBank(
+      @Value("${elevator.cars:1}") int cars,
+      @Value("${elevator.totalFloors}") int totalFloors,
+      @Value("${elevator.floorTimeInSeconds}") int floorTimeInSeconds,
+      @Value("${elevator.doorOpeningTimeInSeconds}") int doorOpeningTimeInSeconds,
+      @Value("${elevator.capacity:" + Integer.MAX_VALUE + "}") int capacity,
+      @Value("${elevator.transferMillisPerPassenger:0}") long transferMillisPerPassenger,
+      @Value("${elevator.energy.travelJoulesPerFloor:12000}") double travelJoulesPerFloor,
+      @Value("${elevator.energy.stopJoules:20000}") double stopJoules,
+      @Value("${elevator.energy.doorCycleJoules:400}") double doorCycleJoules,
+      @Value("${elevator.energy.standbyWatts:150}") double standbyWatts,
+      @Value("${elevator.demand.minutes:1440}") int demandMinutes,
+      DispatchStrategy dispatchStrategy,
+      TimeSource timeSource) {
+    ElevatorBank bank = new ElevatorBank(cars, totalFloors, floorTimeInSeconds,
+        doorOpeningTimeInSeconds, dispatchStrategy, timeSource);
+    bank.setLoadModel(new LoadModel(capacity, transferMillisPerPassenger));
+    bank.setEnergyModel(new EnergyModel(travelJoulesPerFloor, stopJoules, doorCycleJoules,
+        standbyWatts));
+    if (demandMinutes > 0) {
+      bank.setCallStatistics(new CallStatistics(totalFloors, demandMinutes, timeSource));
+    }
+    return bank;
+  }
+}
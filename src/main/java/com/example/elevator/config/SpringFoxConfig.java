@@ -1,5 +1,6 @@
 package com.example.elevator.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.bind.annotation.RestController;
@@ -7,8 +8,17 @@ import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+/**
+ * Swagger documentation of the REST controllers, left out with
+ * {@code springfox.documentation.enabled=false} as in the {@code prod} and {@code reactive}
+ * profiles.
+ */
 @Configuration
+@ConditionalOnProperty(name = "springfox.documentation.enabled", havingValue = "true",
+    matchIfMissing = true)
+@EnableSwagger2
 public class SpringFoxConfig {
 
   @Bean
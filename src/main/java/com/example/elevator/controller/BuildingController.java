@@ -0,0 +1,50 @@
+package com.example.elevator.controller;
+
+import com.example.elevator.building.Building;
+import com.example.elevator.building.BuildingRegistry;
+import com.example.elevator.dto.BuildingRequest;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("building")
+public class BuildingController {
+
+  private final BuildingRegistry registry;
+
+  @Autowired
+  public BuildingController(BuildingRegistry registry) {
+    this.registry = registry;
+  }
+
+  @GetMapping
+  @ApiOperation(value = "List buildings hosted by this node")
+  public Set<String> getBuildings() {
+    return registry.getBuildingIds();
+  }
+
+  @PostMapping(value = "/{buildingId}")
+  @ApiOperation(value = "Add a building with its own cars, floors and timings")
+  public String addBuilding(@PathVariable @ApiParam(value = "Building") String buildingId,
+      @RequestBody BuildingRequest request) {
+    Building building = registry.addBuilding(buildingId, request);
+    return String.format("Building %s added with %d cars and %d floors", building.getId(),
+        building.getBank().getElevators().size(), building.getBank().getTotalFloors());
+  }
+
+  @DeleteMapping(value = "/{buildingId}")
+  @ApiOperation(value = "Remove a building, its cars stop where they are")
+  public String removeBuilding(@PathVariable @ApiParam(value = "Building") String buildingId) {
+    registry.removeBuilding(buildingId);
+    return String.format("Building %s removed", buildingId);
+  }
+}
@@ -1,6 +1,11 @@
 package com.example.elevator.controller;
 
+import com.example.elevator.exception.InvalidBuildingException;
+import com.example.elevator.exception.InvalidDemandQueryException;
+import com.example.elevator.exception.InvalidElevatorException;
 import com.example.elevator.exception.InvalidFloorException;
+import com.example.elevator.exception.InvalidLoadException;
+import com.example.elevator.exception.InvalidOrderException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +24,36 @@ public class ControllerExceptionHandler {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
   }
 
+  @ExceptionHandler(InvalidElevatorException.class)
+  public ResponseEntity<String> handleInvalidElevatorException(InvalidElevatorException e) {
+    log.warn(e.getMessage(), e);
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+  }
+
+  @ExceptionHandler(InvalidOrderException.class)
+  public ResponseEntity<String> handleInvalidOrderException(InvalidOrderException e) {
+    log.warn(e.getMessage(), e);
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+  }
+
+  @ExceptionHandler(InvalidLoadException.class)
+  public ResponseEntity<String> handleInvalidLoadException(InvalidLoadException e) {
+    log.warn(e.getMessage(), e);
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+  }
+
+  @ExceptionHandler(InvalidBuildingException.class)
+  public ResponseEntity<String> handleInvalidBuildingException(InvalidBuildingException e) {
+    log.warn(e.getMessage(), e);
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+  }
+
+  @ExceptionHandler(InvalidDemandQueryException.class)
+  public ResponseEntity<String> handleInvalidDemandQueryException(InvalidDemandQueryException e) {
+    log.warn(e.getMessage(), e);
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<String> handleUnknownExceptions(Exception e) {
     log.error(UNKNOWN_ERROR_MESSAGE, e);
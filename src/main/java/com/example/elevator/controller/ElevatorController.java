@@ -1,61 +1,154 @@
 package com.example.elevator.controller;
 
+import com.example.elevator.building.BuildingRegistry;
+import com.example.elevator.dto.DemandHeatmap;
+import com.example.elevator.dto.OrderRequest;
+import com.example.elevator.dto.OrderResponse;
+import com.example.elevator.elevator.Elevator;
 import com.example.elevator.elevator.OrderType;
 import com.example.elevator.service.ElevatorService;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+/**
+ * Routes under {@code /elevator} serve the default building, the same routes under
+ * {@code /building/{buildingId}/elevator} serve any building in the {@link BuildingRegistry}.
+ */
 @RestController
-@RequestMapping("elevator")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping({"elevator", "building/{buildingId}/elevator"})
 public class ElevatorController {
 
-  private final ElevatorService service;
+  private final BuildingRegistry registry;
 
   @Autowired
-  public ElevatorController(ElevatorService service) {
-    this.service = service;
+  public ElevatorController(BuildingRegistry registry) {
+    this.registry = registry;
   }
 
   @PostMapping(value = "/{orderType}/{floor}")
   @ApiOperation(value = "Add floor to list of destinations")
-  public String addOrder(@PathVariable @ApiParam(value = "Type of order") OrderType orderType,
-      @PathVariable @ApiParam(value = "Chosen floor") Integer floor) {
-    service.addDestinationFloor(floor, orderType);
+  public String addOrder(
+      @PathVariable(required = false) @ApiParam(value = "Building, default if omitted")
+          String buildingId,
+      @PathVariable @ApiParam(value = "Type of order") OrderType orderType,
+      @PathVariable @ApiParam(value = "Chosen floor") Integer floor,
+      @RequestParam(required = false)
+      @ApiParam(value = "Car the order was placed in, assigned by dispatcher if omitted")
+          Integer elevator) {
+    ElevatorService service = registry.getService(buildingId);
+    Elevator assigned = elevator == null
+        ? service.addDestinationFloor(floor, orderType)
+        : service.addDestinationFloor(floor, orderType, elevator);
 
     if (List.of(OrderType.UP, OrderType.DOWN).contains(orderType)) {
-      return String.format("%s button pushed on floor %d", orderType, floor);
+      return String.format("%s button pushed on floor %d, elevator %d assigned", orderType, floor,
+          assigned.getId());
     }
 
-    int estimatedTime = service.getEstimatedTimeToFloor(floor);
+    int estimatedTime = service.getEstimatedTimeToFloor(floor, assigned.getId());
     return String.format("Going to floor %d, estimated time to destination: %d seconds", floor,
         estimatedTime);
   }
 
+  @PostMapping(value = "/destination/{origin}/{destination}")
+  @ApiOperation(value = "Enter destination on a hall panel, grouping passengers into cars")
+  public String addDestinationCall(
+      @PathVariable(required = false) @ApiParam(value = "Building, default if omitted")
+          String buildingId,
+      @PathVariable @ApiParam(value = "Floor of the hall panel") Integer origin,
+      @PathVariable @ApiParam(value = "Chosen destination floor") Integer destination) {
+    Elevator assigned = registry.getService(buildingId).addDestinationCall(origin, destination);
+    return String.format("Destination %d entered on floor %d, elevator %d assigned", destination,
+        origin, assigned.getId());
+  }
+
+  @PostMapping(value = "/orders")
+  @ApiOperation(value = "Add a batch of orders, returning the estimated time for each")
+  public List<OrderResponse> addOrders(
+      @PathVariable(required = false) @ApiParam(value = "Building, default if omitted")
+          String buildingId,
+      @RequestBody List<OrderRequest> orders) {
+    return registry.getService(buildingId).addDestinationFloors(orders);
+  }
+
   @PostMapping(value = "/emergencybreak")
   @ApiOperation(value = "Activate emergency break")
-  public String doEmergencyBreak() {
-    service.doEmergencyBreak();
+  public String doEmergencyBreak(
+      @PathVariable(required = false) @ApiParam(value = "Building, default if omitted")
+          String buildingId) {
+    registry.getService(buildingId).doEmergencyBreak();
     return "Emergency break activated";
   }
 
+  @PostMapping(value = "/resume")
+  @ApiOperation(value = "Release emergency break")
+  public String resume(
+      @PathVariable(required = false) @ApiParam(value = "Building, default if omitted")
+          String buildingId) {
+    int released = registry.getService(buildingId).resume();
+    return String.format("Emergency break released on %d elevators", released);
+  }
+
+  @PostMapping(value = "/transfer")
+  @ApiOperation(value = "Report passengers leaving and entering a car")
+  public String transferPassengers(
+      @PathVariable(required = false) @ApiParam(value = "Building, default if omitted")
+          String buildingId,
+      @RequestParam(defaultValue = "0") @ApiParam(value = "Elevator in the bank") int elevator,
+      @RequestParam(defaultValue = "0") @ApiParam(value = "Passengers leaving") int alighting,
+      @RequestParam(defaultValue = "0") @ApiParam(value = "Passengers entering") int boarding) {
+    int load = registry.getService(buildingId).transferPassengers(elevator, alighting, boarding);
+    return String.format("Elevator %d carries %d passengers", elevator, load);
+  }
+
   @GetMapping(value = "/state")
   @ApiOperation(value = "Get current state of elevator")
-  public String getElevatorState() {
-    return String.format("Current state: %s", service.getElevatorState());
+  public String getElevatorState(
+      @PathVariable(required = false) @ApiParam(value = "Building, default if omitted")
+          String buildingId,
+      @RequestParam(defaultValue = "0") @ApiParam(value = "Elevator in the bank") int elevator) {
+    return String.format("Current state: %s",
+        registry.getService(buildingId).getElevatorState(elevator));
+  }
+
+  @GetMapping(value = "/estimatedtime")
+  @ApiOperation(value = "Get estimated time in seconds to every floor, starting with floor 1")
+  public int[] getEstimatedTimes(
+      @PathVariable(required = false) @ApiParam(value = "Building, default if omitted")
+          String buildingId) {
+    return registry.getService(buildingId).getEstimatedTimes();
   }
 
   @GetMapping(value = "/estimatedtime/{floor}")
   @ApiOperation(value = "Get estimated time to given floor")
   public String getEstimatedTimeToFloor(
+      @PathVariable(required = false) @ApiParam(value = "Building, default if omitted")
+          String buildingId,
       @PathVariable @ApiParam(value = "Target floor") Integer floor) {
-    int estimatedTime = service.getEstimatedTimeToFloor(floor);
+    int estimatedTime = registry.getService(buildingId).getEstimatedTimeToFloor(floor);
     return String.format("Estimated time to floor %s: %d seconds", floor, estimatedTime);
   }
+
+  @GetMapping(value = "/demand")
+  @ApiOperation(value = "Get orders per floor over the last minutes, in buckets of minutes")
+  public DemandHeatmap getDemandHeatmap(
+      @PathVariable(required = false) @ApiParam(value = "Building, default if omitted")
+          String buildingId,
+      @RequestParam(defaultValue = "60") @ApiParam(value = "Minutes back from now") int minutes,
+      @RequestParam(defaultValue = "5") @ApiParam(value = "Minutes per bucket") int bucketMinutes,
+      @RequestParam(required = false) @ApiParam(value = "Order type, all types if omitted")
+          OrderType orderType) {
+    return registry.getService(buildingId).getDemandHeatmap(minutes, bucketMinutes, orderType);
+  }
 }
@@ -0,0 +1,30 @@
+package com.example.elevator.controller;
+
+import com.example.elevator.events.ElevatorEventPublisher;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("elevator")
+public class ElevatorEventController {
+
+  private final ElevatorEventPublisher publisher;
+
+  @Autowired
+  public ElevatorEventController(ElevatorEventPublisher publisher) {
+    this.publisher = publisher;
+  }
+
+  @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @ApiOperation(value = "Subscribe to state, floor and door events of all cars")
+  public SseEmitter subscribe() {
+    return publisher.subscribe();
+  }
+}
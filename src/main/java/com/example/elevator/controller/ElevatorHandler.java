@@ -0,0 +1,123 @@
+package com.example.elevator.controller;
+
+import com.example.elevator.building.BuildingRegistry;
+import com.example.elevator.dto.OrderRequest;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.service.ElevatorService;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Functional counterpart of {@link ElevatorController} for the reactive stack. The service calls
+ * do no I/O: the order journal only copies records into a mapped segment and leaves snapshots to
+ * its own thread. So they run directly on the event loop and responses match the servlet stack.
+ * A call only waits if both journal segments fill up before a snapshot is written.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ElevatorHandler {
+
+  private static final ParameterizedTypeReference<List<OrderRequest>> ORDER_REQUESTS =
+      new ParameterizedTypeReference<>() {
+      };
+
+  private final BuildingRegistry registry;
+
+  @Autowired
+  public ElevatorHandler(BuildingRegistry registry) {
+    this.registry = registry;
+  }
+
+  public Mono<ServerResponse> addOrder(ServerRequest request) {
+    ElevatorService service = service(request);
+    OrderType orderType = OrderType.valueOf(request.pathVariable("orderType"));
+    int floor = Integer.parseInt(request.pathVariable("floor"));
+    Optional<String> elevator = request.queryParam("elevator");
+    Elevator assigned = elevator.isEmpty()
+        ? service.addDestinationFloor(floor, orderType)
+        : service.addDestinationFloor(floor, orderType, Integer.parseInt(elevator.get()));
+
+    if (OrderType.UP.equals(orderType) || OrderType.DOWN.equals(orderType)) {
+      return text(String.format("%s button pushed on floor %d, elevator %d assigned", orderType,
+          floor, assigned.getId()));
+    }
+    int estimatedTime = service.getEstimatedTimeToFloor(floor, assigned.getId());
+    return text(String.format("Going to floor %d, estimated time to destination: %d seconds",
+        floor, estimatedTime));
+  }
+
+  public Mono<ServerResponse> addDestinationCall(ServerRequest request) {
+    int origin = Integer.parseInt(request.pathVariable("origin"));
+    int destination = Integer.parseInt(request.pathVariable("destination"));
+    Elevator assigned = service(request).addDestinationCall(origin, destination);
+    return text(String.format("Destination %d entered on floor %d, elevator %d assigned",
+        destination, origin, assigned.getId()));
+  }
+
+  public Mono<ServerResponse> addOrders(ServerRequest request) {
+    ElevatorService service = service(request);
+    return request.bodyToMono(ORDER_REQUESTS)
+        .flatMap(orders -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(service.addDestinationFloors(orders)));
+  }
+
+  public Mono<ServerResponse> doEmergencyBreak(ServerRequest request) {
+    service(request).doEmergencyBreak();
+    return text("Emergency break activated");
+  }
+
+  public Mono<ServerResponse> resume(ServerRequest request) {
+    int released = service(request).resume();
+    return text(String.format("Emergency break released on %d elevators", released));
+  }
+
+  public Mono<ServerResponse> transferPassengers(ServerRequest request) {
+    int elevator = Integer.parseInt(request.queryParam("elevator").orElse("0"));
+    int alighting = Integer.parseInt(request.queryParam("alighting").orElse("0"));
+    int boarding = Integer.parseInt(request.queryParam("boarding").orElse("0"));
+    int load = service(request).transferPassengers(elevator, alighting, boarding);
+    return text(String.format("Elevator %d carries %d passengers", elevator, load));
+  }
+
+  public Mono<ServerResponse> getElevatorState(ServerRequest request) {
+    int elevator = Integer.parseInt(request.queryParam("elevator").orElse("0"));
+    return text(String.format("Current state: %s",
+        service(request).getElevatorState(elevator)));
+  }
+
+  public Mono<ServerResponse> getEstimatedTimes(ServerRequest request) {
+    return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(service(request).getEstimatedTimes());
+  }
+
+  public Mono<ServerResponse> getEstimatedTimeToFloor(ServerRequest request) {
+    int floor = Integer.parseInt(request.pathVariable("floor"));
+    int estimatedTime = service(request).getEstimatedTimeToFloor(floor);
+    return text(String.format("Estimated time to floor %s: %d seconds", floor, estimatedTime));
+  }
+
+  public Mono<ServerResponse> getDemandHeatmap(ServerRequest request) {
+    int minutes = Integer.parseInt(request.queryParam("minutes").orElse("60"));
+    int bucketMinutes = Integer.parseInt(request.queryParam("bucketMinutes").orElse("5"));
+    OrderType orderType = request.queryParam("orderType").map(OrderType::valueOf).orElse(null);
+    return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(service(request).getDemandHeatmap(minutes, bucketMinutes, orderType));
+  }
+
+  private ElevatorService service(ServerRequest request) {
+    return registry.getService(request.pathVariables().get("buildingId"));
+  }
+
+  private static Mono<ServerResponse> text(String body) {
+    return ServerResponse.ok().contentType(MediaType.TEXT_PLAIN).bodyValue(body);
+  }
+}
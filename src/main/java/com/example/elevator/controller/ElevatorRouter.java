@@ -0,0 +1,65 @@
+package com.example.elevator.controller;
+
+import com.example.elevator.exception.InvalidBuildingException;
+import com.example.elevator.exception.InvalidDemandQueryException;
+import com.example.elevator.exception.InvalidElevatorException;
+import com.example.elevator.exception.InvalidFloorException;
+import com.example.elevator.exception.InvalidLoadException;
+import com.example.elevator.exception.InvalidOrderException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Elevator routes of the reactive stack, enabled with the {@code reactive} profile. Paths,
+ * parameters and responses are those of {@link ElevatorController}, including the 400 responses
+ * of {@link ControllerExceptionHandler}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ElevatorRouter {
+
+  @Bean
+  public RouterFunction<ServerResponse> elevatorRoutes(ElevatorHandler handler) {
+    RouterFunction<ServerResponse> routes = RouterFunctions.route()
+        .POST("/orders", handler::addOrders)
+        .POST("/emergencybreak", handler::doEmergencyBreak)
+        .POST("/resume", handler::resume)
+        .POST("/transfer", handler::transferPassengers)
+        .POST("/destination/{origin}/{destination}", handler::addDestinationCall)
+        .POST("/{orderType}/{floor}", handler::addOrder)
+        .GET("/state", handler::getElevatorState)
+        .GET("/estimatedtime", handler::getEstimatedTimes)
+        .GET("/estimatedtime/{floor}", handler::getEstimatedTimeToFloor)
+        .GET("/demand", handler::getDemandHeatmap)
+        .build();
+    return RouterFunctions.route()
+        .path("/elevator", () -> routes)
+        .path("/building/{buildingId}/elevator", () -> routes)
+        // Deferred, so exceptions thrown by the handlers themselves are mapped as well
+        .filter((request, next) -> Mono.defer(() -> next.handle(request))
+            .onErrorResume(ElevatorRouter::isBadRequest, ElevatorRouter::badRequest))
+        .build();
+  }
+
+  private static Mono<ServerResponse> badRequest(Throwable e) {
+    log.warn(e.getMessage(), e);
+    return ServerResponse.badRequest().contentType(MediaType.TEXT_PLAIN)
+        .bodyValue(String.valueOf(e.getMessage()));
+  }
+
+  private static boolean isBadRequest(Throwable e) {
+    // Malformed path and query parameters throw IllegalArgumentException
+    return e instanceof InvalidFloorException || e instanceof InvalidElevatorException
+        || e instanceof InvalidOrderException || e instanceof InvalidBuildingException
+        || e instanceof InvalidLoadException || e instanceof InvalidDemandQueryException
+        || e instanceof IllegalArgumentException;
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.elevator.controller;
+
+import com.example.elevator.building.Building;
+import com.example.elevator.building.BuildingRegistry;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.panel.PanelEncoder;
+import com.example.elevator.service.ElevatorService;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Machine-oriented routes for floor panels, answering with car status records encoded by
+ * {@link PanelEncoder}: compact JSON by default, the fixed binary encoding when
+ * {@code application/octet-stream} is accepted.
+ */
+@RestController
+@RequestMapping({"panel", "building/{buildingId}/panel"})
+public class PanelController {
+
+  private final BuildingRegistry registry;
+
+  @Autowired
+  public PanelController(BuildingRegistry registry) {
+    this.registry = registry;
+  }
+
+  @PostMapping(value = "/{orderType}/{floor}")
+  @ApiOperation(value = "Add an order, returning the assigned car and its estimated time")
+  public ResponseEntity<byte[]> addOrder(
+      @PathVariable(required = false) @ApiParam(value = "Building, default if omitted")
+          String buildingId,
+      @PathVariable @ApiParam(value = "Type of order") OrderType orderType,
+      @PathVariable @ApiParam(value = "Chosen floor") Integer floor,
+      @RequestParam(required = false)
+      @ApiParam(value = "Car the order was placed in, assigned by dispatcher if omitted")
+          Integer elevator,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    ElevatorService service = registry.getService(buildingId);
+    Elevator assigned = elevator == null
+        ? service.addDestinationFloor(floor, orderType)
+        : service.addDestinationFloor(floor, orderType, elevator);
+    Elevator[] cars = {assigned};
+    int[] etaSeconds = {service.getEstimatedTimeToFloor(floor, assigned.getId())};
+    return respond(accept, cars, etaSeconds, false);
+  }
+
+  @GetMapping(value = "/{floor}")
+  @ApiOperation(value = "Get status of every car with its estimated time to the given floor")
+  public ResponseEntity<byte[]> getStatus(
+      @PathVariable(required = false) @ApiParam(value = "Building, default if omitted")
+          String buildingId,
+      @PathVariable @ApiParam(value = "Floor of the panel") Integer floor,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    Building building = registry.getBuilding(buildingId);
+    List<Elevator> elevators = building.getBank().getElevators();
+    Elevator[] cars = elevators.toArray(new Elevator[0]);
+    int[] etaSeconds = new int[cars.length];
+    for (int i = 0; i < cars.length; i++) {
+      etaSeconds[i] = building.getService().getEstimatedTimeToFloor(floor, cars[i].getId());
+    }
+    return respond(accept, cars, etaSeconds, true);
+  }
+
+  private static ResponseEntity<byte[]> respond(String accept, Elevator[] cars, int[] etaSeconds,
+      boolean array) {
+    if (accept != null && accept.contains(MediaType.APPLICATION_OCTET_STREAM_VALUE)) {
+      return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM)
+          .body(PanelEncoder.binary(cars, etaSeconds));
+    }
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+        .body(PanelEncoder.json(cars, etaSeconds, array));
+  }
+}
@@ -0,0 +1,124 @@
+package com.example.elevator.demand;
+
+import com.example.elevator.dto.DemandHeatmap;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.exception.InvalidDemandQueryException;
+import com.example.elevator.time.TimeSource;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.Getter;
+
+/**
+ * Orders placed per minute, floor and order type over the last {@code minutes} minutes.
+ *
+ * <p>Counts are kept in a ring of one slot per minute, each slot holding a counter per floor and
+ * order type, so memory is bounded by {@code minutes * totalFloors * 3} ints whatever the traffic.
+ * The counters are allocated with the first order, so statistics nobody orders against cost next
+ * to nothing. The first order of a minute clears the slot of the minute that many minutes before;
+ * recording is otherwise one atomic increment and never blocks.
+ */
+public class CallStatistics {
+
+  private static final long MINUTE_MILLIS = 60_000;
+  private static final long NO_MINUTE = Long.MIN_VALUE;
+  private static final OrderType[] ORDER_TYPES = OrderType.values();
+
+  @Getter
+  private final int totalFloors;
+  @Getter
+  private final int minutes;
+  private final TimeSource timeSource;
+  private volatile AtomicIntegerArray counts; // By slot, floor and order type, allocated under this
+  private final AtomicLongArray slotMinutes; // Minute each slot counts, cleared under this
+
+  public CallStatistics(int totalFloors, int minutes, TimeSource timeSource) {
+    if (totalFloors <= 0 || minutes <= 0) {
+      throw new IllegalArgumentException("Floors and minutes must be positive");
+    }
+    this.totalFloors = totalFloors;
+    this.minutes = minutes;
+    this.timeSource = timeSource;
+    this.slotMinutes = new AtomicLongArray(minutes);
+    for (int slot = 0; slot < minutes; slot++) {
+      slotMinutes.set(slot, NO_MINUTE);
+    }
+  }
+
+  public void record(int floor, OrderType orderType) {
+    if (floor < 1 || floor > totalFloors) {
+      return;
+    }
+    long minute = Math.floorDiv(timeSource.currentTimeMillis(), MINUTE_MILLIS);
+    int slot = (int) Math.floorMod(minute, (long) minutes);
+    long slotMinute = slotMinutes.get(slot);
+    if (slotMinute > minute) {
+      // The slot already moved on, too late to count
+      return;
+    }
+    if (slotMinute != minute && !roll(slot, minute)) {
+      return;
+    }
+    counts.incrementAndGet(index(slot, floor, orderType));
+  }
+
+  /**
+   * Returns the orders of the last given minutes, up to the current minute, summed into buckets
+   * of the given length and per floor. Only orders of the given type are counted, all orders if
+   * it is null.
+   */
+  public DemandHeatmap heatmap(int lastMinutes, int bucketMinutes, OrderType orderType) {
+    if (lastMinutes <= 0 || lastMinutes > minutes) {
+      throw new InvalidDemandQueryException("Minutes must be between 1 and " + minutes);
+    }
+    if (bucketMinutes <= 0 || bucketMinutes > lastMinutes) {
+      throw new InvalidDemandQueryException("Bucket must be between 1 and " + lastMinutes
+          + " minutes");
+    }
+    long currentMinute = Math.floorDiv(timeSource.currentTimeMillis(), MINUTE_MILLIS);
+    long firstMinute = currentMinute - lastMinutes + 1;
+    int[][] heatmap = new int[(lastMinutes + bucketMinutes - 1) / bucketMinutes][totalFloors];
+    for (long minute = firstMinute; minute <= currentMinute; minute++) {
+      int slot = (int) Math.floorMod(minute, (long) minutes);
+      if (slotMinutes.get(slot) != minute) {
+        continue;
+      }
+      int[] row = heatmap[(int) ((minute - firstMinute) / bucketMinutes)];
+      for (int floor = 1; floor <= totalFloors; floor++) {
+        if (orderType != null) {
+          row[floor - 1] += counts.get(index(slot, floor, orderType));
+          continue;
+        }
+        for (OrderType type : ORDER_TYPES) {
+          row[floor - 1] += counts.get(index(slot, floor, type));
+        }
+      }
+    }
+    return new DemandHeatmap(firstMinute * MINUTE_MILLIS, bucketMinutes, orderType, heatmap);
+  }
+
+  /**
+   * Clears the slot for the given minute unless it already counts that minute or a later one.
+   * Returns true if the slot counts the given minute.
+   */
+  private synchronized boolean roll(int slot, long minute) {
+    long slotMinute = slotMinutes.get(slot);
+    if (slotMinute >= minute) {
+      return slotMinute == minute;
+    }
+    if (counts == null) {
+      // Every slot is still empty
+      counts = new AtomicIntegerArray(minutes * totalFloors * ORDER_TYPES.length);
+    }
+    int from = index(slot, 1, ORDER_TYPES[0]);
+    for (int i = from; i < from + totalFloors * ORDER_TYPES.length; i++) {
+      counts.set(i, 0);
+    }
+    // Published after clearing, so orders counted for the new minute are never cleared
+    slotMinutes.set(slot, minute);
+    return true;
+  }
+
+  private int index(int slot, int floor, OrderType orderType) {
+    return (slot * totalFloors + floor - 1) * ORDER_TYPES.length + orderType.ordinal();
+  }
+}
@@ -0,0 +1,148 @@
+package com.example.elevator.dispatch;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorListener;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns destination calls, where passengers enter their destination at the hall instead of a
+ * direction, and groups passengers going to the same floors into the same car.
+ *
+ * <p>A call costs a car its estimated time to the origin plus the door time of every stop the
+ * call adds to it, weighted by the passengers the stop delays. Stops the car already makes for
+ * its orders or for passengers waiting for it are free, so passengers sharing an origin and a
+ * destination ride together and each trip makes fewer stops. A car is not given more passengers
+ * on a floor than it has room for.
+ *
+ * <p>The call is placed as a hall call in the direction of travel on the origin floor, and the
+ * destination becomes a car call of the assigned car when it opens its door there.
+ */
+public class DestinationDispatcher implements ElevatorListener {
+
+  private final ElevatorBank bank;
+  private final EstimatedTimeCalculator calculator;
+  private final Map<Elevator, List<Call>> waiting = new HashMap<>(); // Guarded by this
+
+  public DestinationDispatcher(ElevatorBank bank, EstimatedTimeCalculator calculator) {
+    this.bank = bank;
+    this.calculator = calculator;
+    for (Elevator elevator : bank.getElevators()) {
+      waiting.put(elevator, new ArrayList<>());
+      elevator.addListener(this);
+    }
+  }
+
+  /**
+   * Assigns a passenger travelling from origin to destination to a car and returns the car.
+   */
+  public synchronized Elevator assign(int origin, int destination) {
+    OrderType direction = destination > origin ? OrderType.UP : OrderType.DOWN;
+    Elevator best = null;
+    long bestCost = Long.MAX_VALUE;
+    for (Elevator elevator : bank.getElevators()) {
+      long cost = cost(elevator, origin, destination, direction);
+      if (cost < bestCost) {
+        best = elevator;
+        bestCost = cost;
+      }
+    }
+    if (best == null) {
+      // Every car is braked or full, fall back to the hall call dispatcher
+      best = bank.assign(origin, direction);
+    }
+    // Recorded before the order, so a door opening on the origin right away finds the passenger
+    waiting.get(best).add(new Call(origin, destination, direction));
+    best.addOrder(origin, direction);
+    return best;
+  }
+
+  /**
+   * Boards the passengers waiting for the car, and those of cars that filled up and handed their
+   * hall call to this one.
+   */
+  @Override
+  public synchronized void onDoorOpened(Elevator elevator, int floor) {
+    for (Elevator owner : bank.getElevators()) {
+      Iterator<Call> calls = waiting.get(owner).iterator();
+      while (calls.hasNext()) {
+        Call call = calls.next();
+        if (call.origin == floor && (owner == elevator
+            ? !elevator.getOrders().contains(floor, call.direction)
+            : !isCalled(floor, call.direction))) {
+          calls.remove();
+          elevator.addOrder(call.destination, OrderType.NEUTRAL);
+        }
+      }
+    }
+  }
+
+  @Override
+  public synchronized void onStateChanged(Elevator elevator, ElevatorState state) {
+    if (ElevatorState.EMERGENCY_BREAK.equals(state)) {
+      // The break drops the hall calls of the waiting passengers
+      waiting.get(elevator).clear();
+    }
+  }
+
+  private boolean isCalled(int floor, OrderType direction) {
+    for (Elevator elevator : bank.getElevators()) {
+      if (elevator.getOrders().contains(floor, direction)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns what serving the call with the car costs in seconds, or {@link Long#MAX_VALUE} if the
+   * car cannot take it.
+   */
+  private long cost(Elevator elevator, int origin, int destination, OrderType direction) {
+    if (ElevatorState.EMERGENCY_BREAK.equals(elevator.getState()) || elevator.isFull()) {
+      return Long.MAX_VALUE;
+    }
+    List<Call> calls = waiting.get(elevator);
+    int boardingHere = 0;
+    boolean stopsAtOrigin = elevator.getOrders().contains(origin, direction);
+    boolean stopsAtDestination = elevator.getOrders().contains(destination, OrderType.NEUTRAL);
+    for (Call call : calls) {
+      if (call.direction.equals(direction)) {
+        if (call.origin == origin) {
+          boardingHere++;
+          stopsAtOrigin = true;
+        }
+        stopsAtDestination |= call.destination == destination;
+      }
+    }
+    int room = elevator.getLoadModel().getCapacity() - elevator.getLoad();
+    if (boardingHere >= room) {
+      return Long.MAX_VALUE;
+    }
+
+    int newStops = (stopsAtOrigin ? 0 : 1) + (stopsAtDestination ? 0 : 1);
+    int delayed = elevator.getLoad() + calls.size();
+    return calculator.getEstimatedTimeToFloor(elevator, origin)
+        + (long) newStops * elevator.getDoorOpeningTimeInSeconds() * (1 + delayed);
+  }
+
+  private static class Call {
+
+    private final int origin;
+    private final int destination;
+    private final OrderType direction;
+
+    Call(int origin, int destination, OrderType direction) {
+      this.origin = origin;
+      this.destination = destination;
+      this.direction = direction;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.example.elevator.dispatch;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.FloorOrderIndex;
+import com.example.elevator.elevator.OrderType;
+import java.util.List;
+
+/**
+ * Decides which car of a bank serves a call. Implementations are evaluated for every call, so
+ * they should only use cheap per-car state.
+ *
+ * <p>Strategies are given all cars of the bank, in bank order. A full car passes hall calls
+ * without stopping, so strategies pass over full cars while any car has room, see
+ * {@link #passesOver}.
+ */
+public interface DispatchStrategy {
+
+  Elevator selectElevator(List<Elevator> elevators, int floor, OrderType orderType);
+
+  /**
+   * Picks a car for a call of a batch whose orders are not added yet. The orders of the batch
+   * assigned so far are given per car id, null for cars without any, so strategies can spread a
+   * batch the cars do not know about yet.
+   */
+  default Elevator selectElevator(List<Elevator> elevators, int floor, OrderType orderType,
+      FloorOrderIndex[] batches) {
+    return selectElevator(elevators, floor, orderType);
+  }
+
+  /**
+   * Returns true if some of the cars are full and others have room. Full cars are then not
+   * selected; while every car is full, calls are assigned as if no car was.
+   */
+  static boolean passesOver(List<Elevator> elevators) {
+    boolean full = false;
+    boolean room = false;
+    for (Elevator elevator : elevators) {
+      if (elevator.isFull()) {
+        full = true;
+      } else {
+        room = true;
+      }
+    }
+    return full && room;
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.elevator.dispatch;
+
+import com.example.elevator.service.EstimatedTimeCalculator;
+
+public enum DispatchStrategyType {
+  NEAREST_CAR,
+  ESTIMATED_TIME,
+  ZONING,
+  ENERGY_SAVING;
+
+  public DispatchStrategy create(EstimatedTimeCalculator estimatedTimeCalculator) {
+    DispatchStrategy estimatedTime = new EstimatedTimeDispatchStrategy(estimatedTimeCalculator);
+    switch (this) {
+      case NEAREST_CAR:
+        return new NearestCarDispatchStrategy();
+      case ZONING:
+        return new ZoningDispatchStrategy(estimatedTime);
+      case ENERGY_SAVING:
+        return new EnergySavingDispatchStrategy(estimatedTimeCalculator,
+            EnergySavingDispatchStrategy.DEFAULT_MAX_EXTRA_WAIT_SECONDS);
+      default:
+        return estimatedTime;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.example.elevator.dispatch;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.EnergyModel;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import java.util.List;
+
+/**
+ * Picks the car that serves a call with the least extra energy among the cars whose estimated
+ * time to the call floor is at most {@code maxExtraWaitSeconds} behind the fastest car.
+ *
+ * <p>The extra energy of a call is a stop and a door cycle unless the car stops on the floor
+ * anyway, plus the floors it adds to the car's sweep. A car already travelling past the floor
+ * takes the call for the price of a stop, while an idle car would have to start and a car moving
+ * away would have to turn back, so fewer cars start, stop and reverse for a wait bounded by
+ * {@code maxExtraWaitSeconds}.
+ */
+public class EnergySavingDispatchStrategy implements DispatchStrategy {
+
+  public static final int DEFAULT_MAX_EXTRA_WAIT_SECONDS = 15;
+
+  private final EstimatedTimeCalculator calculator;
+  private final int maxExtraWaitSeconds;
+
+  public EnergySavingDispatchStrategy(EstimatedTimeCalculator calculator,
+      int maxExtraWaitSeconds) {
+    this.calculator = calculator;
+    this.maxExtraWaitSeconds = maxExtraWaitSeconds;
+  }
+
+  @Override
+  public Elevator selectElevator(List<Elevator> elevators, int floor, OrderType orderType) {
+    boolean passOverFull = DispatchStrategy.passesOver(elevators);
+    int[] times = new int[elevators.size()];
+    int fastest = Integer.MAX_VALUE;
+    for (int i = 0; i < times.length; i++) {
+      if (passOverFull && elevators.get(i).isFull()) {
+        times[i] = Integer.MAX_VALUE;
+        continue;
+      }
+      times[i] = calculator.getEstimatedTimeToFloor(elevators.get(i), floor);
+      fastest = Math.min(fastest, times[i]);
+    }
+
+    Elevator best = null;
+    double bestJoules = Double.MAX_VALUE;
+    int bestTime = Integer.MAX_VALUE;
+    for (int i = 0; i < times.length; i++) {
+      if (times[i] == Integer.MAX_VALUE || times[i] - fastest > maxExtraWaitSeconds) {
+        continue;
+      }
+      double joules = extraJoules(elevators.get(i), floor);
+      if (joules < bestJoules || joules == bestJoules && times[i] < bestTime) {
+        best = elevators.get(i);
+        bestJoules = joules;
+        bestTime = times[i];
+      }
+    }
+    return best;
+  }
+
+  private static double extraJoules(Elevator elevator, int floor) {
+    EnergyModel model = elevator.getEnergyModel();
+    int currentFloor = elevator.getCurrentFloor();
+    ElevatorState state = elevator.getState();
+    int lowest = elevator.getLowestOrderedStop();
+    int highest = elevator.getHighestOrderedStop();
+    int extraFloors = sweep(currentFloor, state, Math.min(lowest, floor), Math.max(highest, floor))
+        - sweep(currentFloor, state, lowest, highest);
+
+    boolean stopsThere = false;
+    for (OrderType orderType : OrderType.values()) {
+      stopsThere |= elevator.getOrders().contains(floor, orderType);
+    }
+    double stopJoules = stopsThere ? 0 : model.getStopJoules() + model.getDoorCycleJoules();
+    return stopJoules + extraFloors * model.getTravelJoulesPerFloor();
+  }
+
+  /**
+   * Returns the floors a car travels to visit all floors from lowest to highest, going on in its
+   * direction of travel first.
+   */
+  private static int sweep(int currentFloor, ElevatorState state, int lowest, int highest) {
+    int low = Math.min(lowest, currentFloor);
+    int high = Math.max(highest, currentFloor);
+    int upFirst = high - currentFloor + (low < currentFloor ? high - low : 0);
+    int downFirst = currentFloor - low + (high > currentFloor ? high - low : 0);
+    switch (state) {
+      case GOING_UP:
+        return upFirst;
+      case GOING_DOWN:
+        return downFirst;
+      default:
+        return Math.min(upFirst, downFirst);
+    }
+  }
+}
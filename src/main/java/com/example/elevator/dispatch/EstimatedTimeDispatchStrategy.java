@@ -0,0 +1,51 @@
+package com.example.elevator.dispatch;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.FloorOrderIndex;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import java.util.List;
+
+/**
+ * Picks the car with the lowest estimated time to the call floor, using the same estimate that is
+ * reported to passengers.
+ */
+public class EstimatedTimeDispatchStrategy implements DispatchStrategy {
+
+  private final EstimatedTimeCalculator calculator;
+
+  public EstimatedTimeDispatchStrategy(EstimatedTimeCalculator calculator) {
+    this.calculator = calculator;
+  }
+
+  @Override
+  public Elevator selectElevator(List<Elevator> elevators, int floor, OrderType orderType) {
+    return selectElevator(elevators, floor, orderType, null);
+  }
+
+  /**
+   * Adds the door time of every stop a car was given earlier in the batch to its estimate.
+   */
+  @Override
+  public Elevator selectElevator(List<Elevator> elevators, int floor, OrderType orderType,
+      FloorOrderIndex[] batches) {
+    Elevator best = null;
+    int bestTime = Integer.MAX_VALUE;
+    boolean passOverFull = DispatchStrategy.passesOver(elevators);
+    for (Elevator elevator : elevators) {
+      if (passOverFull && elevator.isFull()) {
+        continue;
+      }
+      FloorOrderIndex batch = batches == null ? null : batches[elevator.getId()];
+      int time = calculator.getEstimatedTimeToFloor(elevator, floor);
+      if (batch != null && !batch.contains(floor, orderType)) {
+        time += batch.size() * elevator.getDoorOpeningTimeInSeconds();
+      }
+      if (time < bestTime) {
+        best = elevator;
+        bestTime = time;
+      }
+    }
+    return best;
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.elevator.dispatch;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.FloorOrderIndex;
+import com.example.elevator.elevator.OrderType;
+import java.util.List;
+
+/**
+ * Picks the car closest to the call. Cars moving away from the call are penalized with a full
+ * building length, as they have to reverse before they can serve it.
+ */
+public class NearestCarDispatchStrategy implements DispatchStrategy {
+
+  @Override
+  public Elevator selectElevator(List<Elevator> elevators, int floor, OrderType orderType) {
+    return selectElevator(elevators, floor, orderType, null);
+  }
+
+  /**
+   * Of equally near cars, picks the one given the fewest orders earlier in the batch.
+   */
+  @Override
+  public Elevator selectElevator(List<Elevator> elevators, int floor, OrderType orderType,
+      FloorOrderIndex[] batches) {
+    Elevator best = null;
+    int bestCost = Integer.MAX_VALUE;
+    int bestBatched = Integer.MAX_VALUE;
+    boolean passOverFull = DispatchStrategy.passesOver(elevators);
+    for (Elevator elevator : elevators) {
+      if (passOverFull && elevator.isFull()) {
+        continue;
+      }
+      int cost = cost(elevator, floor);
+      FloorOrderIndex batch = batches == null ? null : batches[elevator.getId()];
+      int batched = batch == null ? 0 : batch.size();
+      if (cost < bestCost || cost == bestCost && batched < bestBatched) {
+        best = elevator;
+        bestCost = cost;
+        bestBatched = batched;
+      }
+    }
+    return best;
+  }
+
+  private int cost(Elevator elevator, int floor) {
+    int currentFloor = elevator.getCurrentFloor();
+    int distance = Math.abs(currentFloor - floor);
+    ElevatorState state = elevator.getState();
+
+    if (ElevatorState.GOING_UP.equals(state) && floor < currentFloor
+        || ElevatorState.GOING_DOWN.equals(state) && floor > currentFloor) {
+      return distance + elevator.getTotalFloors();
+    }
+    if (ElevatorState.EMERGENCY_BREAK.equals(state)) {
+      return Integer.MAX_VALUE - 1;
+    }
+    return distance;
+  }
+}
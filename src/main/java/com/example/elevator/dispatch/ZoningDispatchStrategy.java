@@ -0,0 +1,35 @@
+package com.example.elevator.dispatch;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.OrderType;
+import java.util.List;
+
+/**
+ * Splits the floors above the lobby into one contiguous zone per car. Lobby calls are shared by
+ * all cars and handed to the fallback strategy, as are calls of a zone whose car is full while
+ * others have room. Zones follow the position of the car in the bank, so they never move.
+ */
+public class ZoningDispatchStrategy implements DispatchStrategy {
+
+  private static final int LOBBY = 1;
+
+  private final DispatchStrategy lobbyStrategy;
+
+  public ZoningDispatchStrategy(DispatchStrategy lobbyStrategy) {
+    this.lobbyStrategy = lobbyStrategy;
+  }
+
+  @Override
+  public Elevator selectElevator(List<Elevator> elevators, int floor, OrderType orderType) {
+    if (floor == LOBBY || elevators.size() == 1) {
+      return lobbyStrategy.selectElevator(elevators, floor, orderType);
+    }
+    int floorsAboveLobby = elevators.get(0).getTotalFloors() - LOBBY;
+    int zone = (floor - LOBBY - 1) * elevators.size() / floorsAboveLobby;
+    Elevator zoneCar = elevators.get(zone);
+    if (zoneCar.isFull() && DispatchStrategy.passesOver(elevators)) {
+      return lobbyStrategy.selectElevator(elevators, floor, orderType);
+    }
+    return zoneCar;
+  }
+}
@@ -0,0 +1,21 @@
+package com.example.elevator.dto;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuildingRequest {
+
+  @ApiModelProperty(value = "Number of cars", required = true)
+  private int cars;
+  @ApiModelProperty(value = "Number of floors", required = true)
+  private int totalFloors;
+  @ApiModelProperty(value = "Time to travel one floor", required = true)
+  private int floorTimeInSeconds;
+  @ApiModelProperty(value = "Time the door stays open", required = true)
+  private int doorOpeningTimeInSeconds;
+}
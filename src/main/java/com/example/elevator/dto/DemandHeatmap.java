@@ -0,0 +1,18 @@
+package com.example.elevator.dto;
+
+import com.example.elevator.elevator.OrderType;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Value;
+
+@Value
+public class DemandHeatmap {
+
+  @ApiModelProperty(value = "Start of the first bucket, in milliseconds since the epoch")
+  long startMillis;
+  @ApiModelProperty(value = "Minutes per bucket")
+  int bucketMinutes;
+  @ApiModelProperty(value = "Type of orders counted, all types if missing")
+  OrderType orderType;
+  @ApiModelProperty(value = "Orders per bucket and floor, the first column is floor 1")
+  int[][] counts;
+}
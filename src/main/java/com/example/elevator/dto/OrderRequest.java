@@ -0,0 +1,24 @@
+package com.example.elevator.dto;
+
+import com.example.elevator.elevator.OrderType;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRequest {
+
+  @ApiModelProperty(value = "Type of order", required = true)
+  private OrderType orderType;
+  @ApiModelProperty(value = "Chosen floor", required = true)
+  private int floor;
+  @ApiModelProperty(value = "Car the order was placed in, assigned by dispatcher if omitted")
+  private Integer elevator;
+
+  public OrderRequest(OrderType orderType, int floor) {
+    this(orderType, floor, null);
+  }
+}
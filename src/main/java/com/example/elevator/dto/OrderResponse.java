@@ -0,0 +1,13 @@
+package com.example.elevator.dto;
+
+import com.example.elevator.elevator.OrderType;
+import lombok.Value;
+
+@Value
+public class OrderResponse {
+
+  OrderType orderType;
+  int floor;
+  int elevator;
+  int estimatedTimeInSeconds;
+}
@@ -1,144 +1,545 @@
 package com.example.elevator.elevator;
 
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Stream;
+import com.example.elevator.time.TimeSource;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
 
+/**
+ * A single car. Orders are added by request threads while the car is moved by a scheduler
+ * thread, so orders are kept in a lock-free {@link FloorOrderIndex} and the car position and
+ * state are volatile. Readers may see a floor or state that is one transition old, never a torn
+ * one.
+ *
+ * <p>Movement is a state machine advanced by {@link #step()}, which never blocks and returns how
+ * long the car is busy before the next step. Drivers schedule the steps themselves and are woken
+ * through {@link ElevatorListener#onOrderAdded} when new work arrives; {@link #move()} is a
+ * blocking driver using the car's {@link TimeSource}.
+ *
+ * <p>Where the car stops and which calls it serves there follows a {@link Route}, planned by the
+ * car's {@link RoutePlanner} on the first step after the orders changed.
+ *
+ * <p>With a {@link LoadModel}, passengers getting on and off are reported through
+ * {@link #transfer}. They keep the door open for their transfer time, and a full car plans no
+ * stops for hall calls until passengers leave. Listeners are told when the car fills up, so its
+ * bank can hand its hall calls to other cars.
+ *
+ * <p>What the car spends energy on is counted by its {@link EnergyMeter} and valued with its
+ * {@link EnergyModel}.
+ *
+ * <p>Floors, doors and orders are not logged here; listeners such as the audit log record them
+ * off the movement thread.
+ *
+ * <p>State changes, floors reached, door openings and served or removed orders are queued under
+ * the car lock and passed to listeners after it is released, in order, so a slow listener never
+ * holds up a step or a break. Orders added are passed on right away.
+ */
 @Slf4j
 @Getter
 @Setter
-@Component
 public class Elevator {
 
-  @Value("${elevator.totalFloors}")
-  private int totalFloors;
-  @Value("${elevator.floorTimeInSeconds}")
-  private int floorTimeInSeconds;
-  @Value("${elevator.doorOpeningTimeInSeconds}")
-  private int doorOpeningTimeInSeconds;
+  public static final long NO_ACTION = -1;
 
-  private int currentFloor;
-  private ElevatorState state;
+  private static final OrderType[] ORDER_TYPES = OrderType.values();
 
-  private Set<Integer> ordersUp; // Ordered by up button on floor
-  private Set<Integer> ordersDown; // Ordered by down button on floor
-  private Set<Integer> ordersNeutral; // Ordered by elevator buttons
+  private final int id;
+  private final int totalFloors;
+  private final int floorTimeInSeconds;
+  private final int doorOpeningTimeInSeconds;
 
-  public Elevator() {
+  private volatile int currentFloor;
+  private volatile ElevatorState state;
+  @Setter(AccessLevel.NONE)
+  private volatile int load; // Passengers on board
+  private volatile LoadModel loadModel = LoadModel.UNLIMITED;
+  private volatile EnergyModel energyModel = EnergyModel.DEFAULT;
+
+  private final FloorOrderIndex orders;
+  @Getter(AccessLevel.NONE)
+  private final FloorOrderIndex carCalls; // The car calls of orders, without hall calls
+  private final EstimatedTimeTable estimatedTimes = new EstimatedTimeTable();
+  private final EnergyMeter energyMeter;
+
+  @Getter(AccessLevel.NONE)
+  private final TimeSource timeSource;
+  @Getter(AccessLevel.NONE)
+  private final AtomicLong version = new AtomicLong(); // Bumped after every change
+  @Getter(AccessLevel.NONE)
+  private final List<ElevatorListener> listeners = new CopyOnWriteArrayList<>();
+  @Getter(AccessLevel.NONE)
+  private final RoutePlanner routePlanner;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private volatile boolean routeStale = true; // Set after orders, floor or state are changed
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private Route route = Route.EMPTY; // Guarded by this, like the fields below
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private int nextStop;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private boolean travelling; // Only touched while stepping
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private long dwellMillis; // Transfer time the door stays open for, guarded by this
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private volatile Thread mover; // Thread blocked in move(), if any
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final PendingEvents pendingEvents = new PendingEvents(); // Guarded by this
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final AtomicBoolean notifying = new AtomicBoolean(); // Set while a thread passes events
+
+  public Elevator(int id, int totalFloors, int floorTimeInSeconds, int doorOpeningTimeInSeconds,
+      TimeSource timeSource) {
+    this(id, totalFloors, floorTimeInSeconds, doorOpeningTimeInSeconds, timeSource,
+        new LookRoutePlanner());
+  }
+
+  public Elevator(int id, int totalFloors, int floorTimeInSeconds, int doorOpeningTimeInSeconds,
+      TimeSource timeSource, RoutePlanner routePlanner) {
+    this.id = id;
+    this.totalFloors = totalFloors;
+    this.floorTimeInSeconds = floorTimeInSeconds;
+    this.doorOpeningTimeInSeconds = doorOpeningTimeInSeconds;
+    this.timeSource = timeSource;
+    this.routePlanner = routePlanner;
     this.currentFloor = 1;
-    this.ordersUp = new HashSet<>();
-    this.ordersDown = new HashSet<>();
-    this.ordersNeutral = new HashSet<>();
+    this.orders = new FloorOrderIndex(totalFloors);
+    this.carCalls = new FloorOrderIndex(new FloorBitSet(totalFloors), new FloorBitSet(totalFloors),
+        orders.get(OrderType.NEUTRAL));
     this.state = ElevatorState.IDLE;
+    this.energyMeter = new EnergyMeter(timeSource.currentTimeMillis());
   }
 
-  public boolean shouldMove() {
-    return ElevatorState.IDLE.equals(this.state) && streamAllOrders()
-        .anyMatch(o -> o != this.currentFloor);
+  /**
+   * Returns a number that changes whenever orders, floor or state of the car change. It is
+   * bumped after the change is made, so state read after reading the version is at least as new.
+   */
+  public long getVersion() {
+    return version.get();
   }
 
-  public void move() throws InterruptedException {
-    if (ElevatorState.IDLE.equals(state)) {
-      this.state = findNewState();
-      log.info("Elevator state changed to {}", state);
+  public void setCurrentFloor(int currentFloor) {
+    this.currentFloor = currentFloor;
+    routeStale = true;
+    version.incrementAndGet();
+  }
+
+  public void setState(ElevatorState state) {
+    this.state = state;
+    routeStale = true;
+    version.incrementAndGet();
+  }
+
+  public void setLoadModel(LoadModel loadModel) {
+    this.loadModel = loadModel;
+    routeStale = true;
+    version.incrementAndGet();
+  }
+
+  /**
+   * Records passengers leaving and entering the car while its door is open. The door stays open
+   * for their transfer time before the car moves on. Returns the passengers now on board.
+   */
+  public int transfer(int alighting, int boarding) {
+    if (alighting < 0 || boarding < 0) {
+      throw new IllegalArgumentException("Passenger counts must not be negative");
+    }
+    boolean filled;
+    int passengers;
+    synchronized (this) {
+      boolean wasFull = isFull();
+      load = Math.max(load - alighting, 0) + boarding;
+      passengers = load;
+      dwellMillis += loadModel.transferMillis(alighting + boarding);
+      filled = !wasFull && isFull();
+      if (wasFull != isFull()) {
+        routeStale = true;
+      }
+      version.incrementAndGet();
+    }
+    if (filled) {
+      for (ElevatorListener listener : listeners) {
+        listener.onFull(this);
+      }
     }
+    return passengers;
+  }
+
+  /**
+   * Returns the energy the car used so far, valued with its energy model.
+   */
+  public double getEnergyJoules() {
+    return energyMeter.getJoules(energyModel, timeSource.currentTimeMillis());
+  }
 
-    // Check if door should open on current floor
-    checkCurrentFloor();
+  public boolean isFull() {
+    return load >= loadModel.getCapacity();
+  }
+
+  public void addListener(ElevatorListener listener) {
+    listeners.add(listener);
+  }
 
-    while (!ElevatorState.IDLE.equals(this.state)) {
-      // Go in one direction until orders exhausted
-      if (ElevatorState.GOING_UP.equals(this.state)) {
-        goUp();
+  public void addOrder(int floor, OrderType orderType) {
+    if (orders.add(floor, orderType)) {
+      routeStale = true;
+      version.incrementAndGet();
+      for (ElevatorListener listener : listeners) {
+        listener.onOrderAdded(this, floor, orderType);
       }
-      if (ElevatorState.GOING_DOWN.equals(this.state)) {
-        goDown();
+    }
+  }
+
+  /**
+   * Adds a batch of orders. Orders of one type are published together, so the car never acts on
+   * part of a batch for floors that share a word of the index.
+   */
+  public void addOrders(FloorOrderIndex batch) {
+    for (OrderType orderType : OrderType.values()) {
+      orders.get(orderType).addAll(batch.get(orderType), floor -> {
+        routeStale = true;
+        version.incrementAndGet();
+        for (ElevatorListener listener : listeners) {
+          listener.onOrderAdded(this, floor, orderType);
+        }
+      });
+    }
+  }
+
+  /**
+   * Withdraws an order not served yet. Returns false if there was no such order.
+   */
+  public boolean removeOrder(int floor, OrderType orderType) {
+    synchronized (this) {
+      // Only the thread that removed the order queues the event, not a step serving it meanwhile
+      if (!orders.remove(floor, orderType)) {
+        return false;
       }
-      // Set state to IDLE when orders in one direction are exhausted.
-      // This will trigger a new run in the scheduler.
-      resetElevatorStateIfApplicable();
+      routeStale = true;
+      version.incrementAndGet();
+      pendingEvents.add(PendingEvents.ORDER_REMOVED, floor, null, orderType);
     }
+    notifyListeners();
+    return true;
   }
 
-  public int getHighestOrderedStop() {
-    return streamAllOrders().reduce(Integer::max).orElse(currentFloor);
+  public void clearOrders() {
+    orders.clear();
+    routeStale = true;
+    version.incrementAndGet();
   }
 
-  public int getLowestOrderedStop() {
-    return streamAllOrders().reduce(Integer::min).orElse(currentFloor);
+  /**
+   * Stops the car where it is and drops its orders. Takes the car lock, so it waits at most for a
+   * step in progress, which never blocks; no step moves the car afterwards. A thread blocked in
+   * {@link #move()} is interrupted and returns. Listeners are told once the car has stopped.
+   */
+  public void emergencyBreak() {
+    brake();
+    notifyListeners();
   }
 
-  private Stream<Integer> streamAllOrders() {
-    return Stream.of(ordersUp, ordersDown, ordersNeutral)
-        .flatMap(Set::stream);
+  /**
+   * Applies the emergency break without telling listeners, so a bank can stop all its cars before
+   * any listener runs. {@link #notifyListeners()} passes the break on.
+   */
+  void brake() {
+    synchronized (this) {
+      if (travelling) {
+        energyMeter.stopped();
+      }
+      travelling = false;
+      dwellMillis = 0;
+      changeState(ElevatorState.EMERGENCY_BREAK);
+      clearOrders();
+    }
+    Thread thread = mover;
+    if (thread != null) {
+      thread.interrupt();
+    }
   }
 
-  private ElevatorState findNewState() {
-    return streamAllOrders()
-        .filter(o -> o != currentFloor)
-        .findAny()
-        .map(o -> o > currentFloor ? ElevatorState.GOING_UP : ElevatorState.GOING_DOWN)
-        .orElse(ElevatorState.IDLE);
+  /**
+   * Releases the emergency break, leaving the car idle on its floor. Returns false if the break
+   * was not applied.
+   */
+  public boolean resume() {
+    synchronized (this) {
+      if (!ElevatorState.EMERGENCY_BREAK.equals(state)) {
+        return false;
+      }
+      routeStale = true;
+      changeState(ElevatorState.IDLE);
+    }
+    notifyListeners();
+    return true;
   }
 
-  private void goUp() throws InterruptedException {
-    Thread.sleep(floorTimeInSeconds * 1000L);
-    currentFloor++;
-    checkCurrentFloor();
+  public boolean shouldMove() {
+    return ElevatorState.IDLE.equals(this.state)
+        && (orders.hasOrdersAbove(currentFloor) || orders.hasOrdersBelow(currentFloor));
   }
 
-  private void goDown() throws InterruptedException {
-    Thread.sleep(floorTimeInSeconds * 1000L);
-    currentFloor--;
-    checkCurrentFloor();
+  /**
+   * Returns true if stepping the car would do something.
+   */
+  public boolean hasPendingWork() {
+    if (ElevatorState.EMERGENCY_BREAK.equals(state)) {
+      return false;
+    }
+    // A full car only moves for car calls
+    return isFull() ? !orders.get(OrderType.NEUTRAL).isEmpty() : !orders.isEmpty();
   }
 
-  private void checkCurrentFloor() throws InterruptedException {
-    log.info("Current floor: {}", currentFloor);
-    boolean shouldOpenDoor = false;
+  /**
+   * Moves the car until all orders are served or the emergency break is applied, blocking for
+   * the travel and door times.
+   */
+  public void move() throws InterruptedException {
+    mover = Thread.currentThread();
+    try {
+      long busyMillis = step();
+      while (busyMillis != NO_ACTION) {
+        try {
+          timeSource.sleep(busyMillis);
+        } catch (InterruptedException e) {
+          if (!ElevatorState.EMERGENCY_BREAK.equals(state)) {
+            throw e;
+          }
+        }
+        busyMillis = step();
+      }
+    } finally {
+      mover = null;
+      if (ElevatorState.EMERGENCY_BREAK.equals(state)) {
+        // Clears the interrupt of a break applied after sleeping
+        Thread.interrupted();
+      }
+    }
+  }
+
+  /**
+   * Performs the next transition of the car: choosing a direction and serving the current floor
+   * when standing, or arriving at the next floor when travelling. Returns the time in
+   * milliseconds the car is busy with doors and travel before the next step, or
+   * {@link #NO_ACTION} if there is nothing to do.
+   */
+  public long step() {
+    long busyMillis;
+    synchronized (this) {
+      busyMillis = advance();
+    }
+    notifyListeners();
+    return busyMillis;
+  }
 
-    if (ordersNeutral.contains(currentFloor)) {
-      shouldOpenDoor = true;
-      ordersNeutral.remove(currentFloor);
+  /**
+   * Passes queued events to the listeners, outside the car lock. Only one thread passes events at
+   * a time, so listeners see them in order; a thread finding another one at it leaves its events
+   * to that thread.
+   */
+  void notifyListeners() {
+    while (notifying.compareAndSet(false, true)) {
+      try {
+        while (true) {
+          byte type;
+          int floor;
+          ElevatorState newState;
+          OrderType orderType;
+          synchronized (this) {
+            if (pendingEvents.isEmpty()) {
+              break;
+            }
+            type = pendingEvents.type();
+            floor = pendingEvents.floor();
+            newState = pendingEvents.state();
+            orderType = pendingEvents.orderType();
+            pendingEvents.remove();
+          }
+          fire(type, floor, newState, orderType);
+        }
+      } finally {
+        notifying.set(false);
+      }
+      synchronized (this) {
+        // Events queued after the last poll but before the flag was cleared
+        if (pendingEvents.isEmpty()) {
+          return;
+        }
+      }
     }
-    if (shouldStopForOrderUp()) {
-      shouldOpenDoor = true;
-      ordersUp.remove(currentFloor);
+  }
+
+  private void fire(byte type, int floor, ElevatorState newState, OrderType orderType) {
+    for (ElevatorListener listener : listeners) {
+      if (type == PendingEvents.STATE_CHANGED) {
+        listener.onStateChanged(this, newState);
+      } else if (type == PendingEvents.FLOOR_REACHED) {
+        listener.onFloorReached(this, floor);
+      } else if (type == PendingEvents.DOOR_OPENED) {
+        listener.onDoorOpened(this, floor);
+      } else if (type == PendingEvents.ORDER_SERVED) {
+        listener.onOrderServed(this, floor, orderType);
+      } else {
+        listener.onOrderRemoved(this, floor, orderType);
+      }
     }
-    if (shouldStopForOrderDown()) {
-      shouldOpenDoor = true;
-      ordersDown.remove(currentFloor);
+  }
+
+  private long advance() {
+    if (ElevatorState.EMERGENCY_BREAK.equals(state)) {
+      travelling = false;
+      return NO_ACTION;
     }
 
-    if (shouldOpenDoor) {
-      log.info("Opening door");
-      Thread.sleep(doorOpeningTimeInSeconds * 1000L);
+    if (dwellMillis > 0) {
+      // Passengers are still getting on and off
+      long transferMillis = dwellMillis;
+      dwellMillis = 0;
+      return transferMillis;
     }
+
+    if (travelling) {
+      // Arrive at the next floor in the direction of travel
+      currentFloor += ElevatorState.GOING_UP.equals(state) ? 1 : -1;
+      energyMeter.floorTravelled();
+      version.incrementAndGet();
+      pendingEvents.add(PendingEvents.FLOOR_REACHED, currentFloor, null, null);
+      long doorMillis = checkCurrentFloor();
+      // Set state to IDLE when orders in one direction are exhausted.
+      resetElevatorStateIfApplicable();
+      if (ElevatorState.IDLE.equals(state)) {
+        energyMeter.stopped();
+        travelling = false;
+        return doorMillis;
+      }
+      if (doorMillis > 0) {
+        // Stopped for the door and sets off again in the same direction
+        energyMeter.stopped();
+      }
+      return doorMillis + floorTimeInSeconds * 1000L;
+    }
+
+    if (ElevatorState.IDLE.equals(state)) {
+      ElevatorState newState = shouldMove() ? findNewState() : ElevatorState.IDLE;
+      if (ElevatorState.IDLE.equals(newState)) {
+        // Calls on the floor the car is standing on only need the door
+        long doorMillis = checkCurrentFloor();
+        return doorMillis > 0 ? doorMillis : NO_ACTION;
+      }
+      changeState(newState);
+    }
+
+    // Check if door should open on current floor, then go in one direction until orders exhausted
+    long doorMillis = checkCurrentFloor();
+    travelling = true;
+    return doorMillis + floorTimeInSeconds * 1000L;
   }
 
-  private boolean shouldStopForOrderUp() {
-    return ordersUp.contains(currentFloor)
-        && (ElevatorState.GOING_UP.equals(state)
-        || (ElevatorState.GOING_DOWN.equals(state) && currentFloor == getLowestOrderedStop()));
+  public int getHighestOrderedStop() {
+    int highest = orders.highest();
+    return highest == FloorOrderIndex.NONE ? currentFloor : highest;
   }
 
-  private boolean shouldStopForOrderDown() {
-    return ordersDown.contains(currentFloor)
-        && (ElevatorState.GOING_DOWN.equals(state)
-        || (ElevatorState.GOING_UP.equals(state) && currentFloor == getHighestOrderedStop()));
+  public int getLowestOrderedStop() {
+    int lowest = orders.lowest();
+    return lowest == FloorOrderIndex.NONE ? currentFloor : lowest;
+  }
+
+  /**
+   * Returns the planned stops not visited yet, for tests and diagnostics.
+   */
+  public synchronized IntStream getPlannedStops() {
+    return route().floors().skip(nextStop);
+  }
+
+  /**
+   * Returns the current route, planning a new one if orders, floor or state changed since the
+   * last plan.
+   */
+  private Route route() {
+    if (routeStale) {
+      // Cleared before reading the orders, so an order added meanwhile plans again
+      routeStale = false;
+      route = routePlanner.plan(currentFloor, state, isFull() ? carCalls : orders);
+      nextStop = 0;
+    }
+    return route;
+  }
+
+  private ElevatorState findNewState() {
+    Route route = route();
+    if (nextStop >= route.size()) {
+      return ElevatorState.IDLE;
+    }
+    // Leave towards the first stop, or towards the one after it if the first is this floor
+    int target = route.getFloor(nextStop);
+    if (target == currentFloor && nextStop + 1 < route.size()) {
+      target = route.getFloor(nextStop + 1);
+    }
+    if (target > currentFloor) {
+      return ElevatorState.GOING_UP;
+    }
+    return target < currentFloor ? ElevatorState.GOING_DOWN : ElevatorState.IDLE;
   }
 
+  /**
+   * Serves orders on the current floor and returns how long the door stays open.
+   */
+  private long checkCurrentFloor() {
+    boolean shouldOpenDoor = false;
+
+    Route route = route();
+    if (nextStop < route.size() && route.getFloor(nextStop) == currentFloor) {
+      // remove() is atomic, so an order placed concurrently is either served here or kept
+      for (OrderType orderType : ORDER_TYPES) {
+        if (route.serves(nextStop, orderType) && orders.remove(currentFloor, orderType)) {
+          shouldOpenDoor = true;
+          pendingEvents.add(PendingEvents.ORDER_SERVED, currentFloor, null, orderType);
+        }
+      }
+      nextStop++;
+    }
+
+    if (shouldOpenDoor) {
+      energyMeter.doorCycled();
+      version.incrementAndGet();
+      pendingEvents.add(PendingEvents.DOOR_OPENED, currentFloor, null, null);
+      return doorOpeningTimeInSeconds * 1000L;
+    }
+    return 0;
+  }
+
+  /**
+   * Stops the car when the next planned stop is not ahead of it.
+   */
   private void resetElevatorStateIfApplicable() {
-    if (ElevatorState.GOING_DOWN.equals(state) && currentFloor <= getLowestOrderedStop()
-        || ElevatorState.GOING_UP.equals(state) && currentFloor >= getHighestOrderedStop()
-        || streamAllOrders().findAny().isEmpty()) {
-      this.state = ElevatorState.IDLE;
-      log.info("Elevator state changed to {}", state);
+    Route route = route();
+    boolean stopAhead = nextStop < route.size()
+        && (ElevatorState.GOING_UP.equals(state) && route.getFloor(nextStop) > currentFloor
+        || ElevatorState.GOING_DOWN.equals(state) && route.getFloor(nextStop) < currentFloor);
+    if (!stopAhead || orders.isEmpty()) {
+      changeState(ElevatorState.IDLE);
     }
   }
-}
\ No newline at end of file
+
+  private void changeState(ElevatorState newState) {
+    this.state = newState;
+    energyMeter.stateChanged(newState, timeSource.currentTimeMillis());
+    version.incrementAndGet();
+    log.debug("Elevator {} state changed to {}", id, newState);
+    pendingEvents.add(PendingEvents.STATE_CHANGED, currentFloor, newState, null);
+  }
+}
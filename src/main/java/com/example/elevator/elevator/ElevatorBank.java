@@ -0,0 +1,114 @@
+package com.example.elevator.elevator;
+
+import com.example.elevator.demand.CallStatistics;
+import com.example.elevator.dispatch.DispatchStrategy;
+import com.example.elevator.exception.InvalidElevatorException;
+import com.example.elevator.time.TimeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Group of cars serving the same floors. Hall calls are assigned to a single car by the bank's
+ * {@link DispatchStrategy}, car calls go straight to the car they were placed in.
+ *
+ * <p>A full car passes its hall calls without stopping, so the dispatch strategy passes over full
+ * cars, and the hall calls of a car that fills up are handed to cars with room left. While every
+ * car is full, calls are assigned and kept as if no car was.
+ */
+@Getter
+public class ElevatorBank implements ElevatorListener {
+
+  private static final OrderType[] HALL_CALLS = {OrderType.UP, OrderType.DOWN};
+
+  private final int totalFloors;
+  private final List<Elevator> elevators;
+  private final DispatchStrategy dispatchStrategy;
+  private LoadModel loadModel = LoadModel.UNLIMITED;
+  private EnergyModel energyModel = EnergyModel.DEFAULT;
+  @Setter
+  private volatile CallStatistics callStatistics; // Null if orders are not counted
+
+  public ElevatorBank(int cars, int totalFloors, int floorTimeInSeconds,
+      int doorOpeningTimeInSeconds, DispatchStrategy dispatchStrategy, TimeSource timeSource) {
+    if (cars <= 0) {
+      throw new IllegalArgumentException("Elevator bank needs at least one car");
+    }
+    List<Elevator> created = new ArrayList<>(cars);
+    for (int id = 0; id < cars; id++) {
+      created.add(new Elevator(id, totalFloors, floorTimeInSeconds, doorOpeningTimeInSeconds,
+          timeSource));
+    }
+    this.totalFloors = totalFloors;
+    this.elevators = Collections.unmodifiableList(created);
+    this.dispatchStrategy = dispatchStrategy;
+    for (Elevator elevator : elevators) {
+      elevator.addListener(this);
+    }
+  }
+
+  public void setLoadModel(LoadModel loadModel) {
+    this.loadModel = loadModel;
+    for (Elevator elevator : elevators) {
+      elevator.setLoadModel(loadModel);
+    }
+  }
+
+  public void setEnergyModel(EnergyModel energyModel) {
+    this.energyModel = energyModel;
+    for (Elevator elevator : elevators) {
+      elevator.setEnergyModel(energyModel);
+    }
+  }
+
+  public Elevator getElevator(int id) {
+    if (id < 0 || id >= elevators.size()) {
+      throw new InvalidElevatorException(
+          "Elevator must be between 0 and " + (elevators.size() - 1));
+    }
+    return elevators.get(id);
+  }
+
+  public Elevator assign(int floor, OrderType orderType) {
+    return dispatchStrategy.selectElevator(elevators, floor, orderType);
+  }
+
+  /**
+   * Assigns a call of a batch, given the orders of the batch assigned so far per car id.
+   */
+  public Elevator assign(int floor, OrderType orderType, FloorOrderIndex[] batches) {
+    return dispatchStrategy.selectElevator(elevators, floor, orderType, batches);
+  }
+
+  /**
+   * Applies the emergency break to every car before telling listeners of any, so listeners do
+   * not delay braking the remaining cars.
+   */
+  public void emergencyBreak() {
+    for (Elevator elevator : elevators) {
+      elevator.brake();
+    }
+    for (Elevator elevator : elevators) {
+      elevator.notifyListeners();
+    }
+  }
+
+  @Override
+  public void onFull(Elevator elevator) {
+    if (!elevator.isFull() || !DispatchStrategy.passesOver(elevators)) {
+      // Emptied again, or no car has room left
+      return;
+    }
+    for (OrderType orderType : HALL_CALLS) {
+      for (int floor = 1; floor <= totalFloors; floor++) {
+        // Removed first, so a call the full car serves meanwhile is not added again
+        if (elevator.getOrders().contains(floor, orderType)
+            && elevator.removeOrder(floor, orderType)) {
+          dispatchStrategy.selectElevator(elevators, floor, orderType).addOrder(floor, orderType);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.elevator.elevator;
+
+/**
+ * Callback for things happening to a car. Orders added are passed on by the request thread adding
+ * them. Other events are passed on after the car lock is released, by the thread causing them or
+ * by one still passing on earlier events of the car. Callbacks must return quickly.
+ */
+public interface ElevatorListener {
+
+  default void onOrderAdded(Elevator elevator, int floor, OrderType orderType) {
+  }
+
+  default void onStateChanged(Elevator elevator, ElevatorState state) {
+  }
+
+  default void onFloorReached(Elevator elevator, int floor) {
+  }
+
+  default void onDoorOpened(Elevator elevator, int floor) {
+  }
+
+  /**
+   * Called after the car served an order on its floor, before the door opening is passed on. The
+   * order may be added again by the time the call is made.
+   */
+  default void onOrderServed(Elevator elevator, int floor, OrderType orderType) {
+  }
+
+  /**
+   * Called after an order was withdrawn from the car without being served. Called once per
+   * removal, so the order may be added again by the time the call is made.
+   */
+  default void onOrderRemoved(Elevator elevator, int floor, OrderType orderType) {
+  }
+
+  /**
+   * Called on the thread reporting the transfer when boarding passengers fill the car.
+   */
+  default void onFull(Elevator elevator) {
+  }
+}
@@ -0,0 +1,85 @@
+package com.example.elevator.elevator;
+
+/**
+ * Counts what a car spends energy on: floors travelled, stops after travelling, door cycles and
+ * time standing idle. Also counts reversals, departures opposite to the previous direction of
+ * travel. Updated by the car while it steps, read by any thread.
+ */
+public class EnergyMeter {
+
+  private static final long NOT_IDLE = -1;
+
+  private long floors;
+  private long stops;
+  private long reversals;
+  private long doorCycles;
+  private long standbyMillis;
+  private long idleSinceMillis;
+  private ElevatorState lastDirection = ElevatorState.IDLE;
+
+  EnergyMeter(long nowMillis) {
+    this.idleSinceMillis = nowMillis;
+  }
+
+  synchronized void floorTravelled() {
+    floors++;
+  }
+
+  synchronized void stopped() {
+    stops++;
+  }
+
+  synchronized void doorCycled() {
+    doorCycles++;
+  }
+
+  synchronized void stateChanged(ElevatorState state, long nowMillis) {
+    if (ElevatorState.IDLE.equals(state)) {
+      if (idleSinceMillis == NOT_IDLE) {
+        idleSinceMillis = nowMillis;
+      }
+      return;
+    }
+    if (idleSinceMillis != NOT_IDLE) {
+      standbyMillis += nowMillis - idleSinceMillis;
+      idleSinceMillis = NOT_IDLE;
+    }
+    if (ElevatorState.GOING_UP.equals(state) || ElevatorState.GOING_DOWN.equals(state)) {
+      if (!ElevatorState.IDLE.equals(lastDirection) && !lastDirection.equals(state)) {
+        reversals++;
+      }
+      lastDirection = state;
+    }
+  }
+
+  public synchronized long getFloors() {
+    return floors;
+  }
+
+  public synchronized long getStops() {
+    return stops;
+  }
+
+  public synchronized long getReversals() {
+    return reversals;
+  }
+
+  public synchronized long getDoorCycles() {
+    return doorCycles;
+  }
+
+  /**
+   * Returns the time spent idle until the given time.
+   */
+  public synchronized long getStandbyMillis(long nowMillis) {
+    return idleSinceMillis == NOT_IDLE ? standbyMillis
+        : standbyMillis + Math.max(nowMillis - idleSinceMillis, 0);
+  }
+
+  /**
+   * Returns the energy used until the given time.
+   */
+  public synchronized double getJoules(EnergyModel model, long nowMillis) {
+    return model.joules(floors, stops, doorCycles, getStandbyMillis(nowMillis));
+  }
+}
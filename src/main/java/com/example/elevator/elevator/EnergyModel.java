@@ -0,0 +1,35 @@
+package com.example.elevator.elevator;
+
+import lombok.Value;
+
+/**
+ * Energy a car uses: per floor travelled, per stop for braking and accelerating again, per door
+ * cycle, and for standby while standing idle. {@link #DEFAULT} holds rough figures for a mid-rise
+ * traction elevator.
+ */
+@Value
+public class EnergyModel {
+
+  public static final EnergyModel DEFAULT = new EnergyModel(12_000, 20_000, 400, 150);
+
+  double travelJoulesPerFloor;
+  double stopJoules;
+  double doorCycleJoules;
+  double standbyWatts;
+
+  public EnergyModel(double travelJoulesPerFloor, double stopJoules, double doorCycleJoules,
+      double standbyWatts) {
+    if (travelJoulesPerFloor < 0 || stopJoules < 0 || doorCycleJoules < 0 || standbyWatts < 0) {
+      throw new IllegalArgumentException("Energy figures must not be negative");
+    }
+    this.travelJoulesPerFloor = travelJoulesPerFloor;
+    this.stopJoules = stopJoules;
+    this.doorCycleJoules = doorCycleJoules;
+    this.standbyWatts = standbyWatts;
+  }
+
+  public double joules(long floors, long stops, long doorCycles, long standbyMillis) {
+    return floors * travelJoulesPerFloor + stops * stopJoules + doorCycles * doorCycleJoules
+        + standbyMillis / 1000.0 * standbyWatts;
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.elevator.elevator;
+
+/**
+ * Cached estimated times of a car to every floor, valid for one {@link Elevator#getVersion()}.
+ * The table is replaced as a whole, so readers always see a complete table of one version.
+ */
+public class EstimatedTimeTable {
+
+  private volatile Snapshot snapshot;
+
+  /**
+   * Returns the times indexed by floor if they were computed for the given version, otherwise
+   * null. The returned array is shared and must not be modified.
+   */
+  public int[] get(long version) {
+    Snapshot current = snapshot;
+    return current != null && current.version == version ? current.estimatedTimes : null;
+  }
+
+  public void update(long version, int[] estimatedTimes) {
+    snapshot = new Snapshot(version, estimatedTimes);
+  }
+
+  private static class Snapshot {
+
+    private final long version;
+    private final int[] estimatedTimes;
+
+    Snapshot(long version, int[] estimatedTimes) {
+      this.version = version;
+      this.estimatedTimes = estimatedTimes;
+    }
+  }
+}
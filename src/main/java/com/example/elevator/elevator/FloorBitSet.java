@@ -0,0 +1,164 @@
+package com.example.elevator.elevator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Lock-free set of floors backed by one bit per floor.
+ *
+ * <p>Every single-floor operation is atomic and has volatile semantics: a floor added by a
+ * request thread is visible to the movement thread as soon as {@link #add(int)} returns, and of
+ * two threads removing the same floor only one sees {@code true}. Whole-set reads such as
+ * {@link #isEmpty()} or {@link #stream()} scan the words one by one and are therefore not a
+ * snapshot of concurrent updates.
+ */
+public class FloorBitSet {
+
+  public static final int NONE = -1;
+
+  private static final int WORD_SHIFT = 6;
+  private static final long ALL_BITS = -1L;
+
+  private final AtomicLongArray words;
+  private final int maxFloor;
+
+  public FloorBitSet(int maxFloor) {
+    this.maxFloor = maxFloor;
+    this.words = new AtomicLongArray((maxFloor >> WORD_SHIFT) + 1);
+  }
+
+  /**
+   * Returns true if the floor was not already in the set.
+   */
+  public boolean add(int floor) {
+    int index = wordIndex(floor);
+    long mask = 1L << floor;
+    return (words.getAndAccumulate(index, mask, (word, bit) -> word | bit) & mask) == 0;
+  }
+
+  /**
+   * Returns true if the floor was in the set.
+   */
+  public boolean remove(int floor) {
+    int index = wordIndex(floor);
+    long mask = 1L << floor;
+    return (words.getAndAccumulate(index, ~mask, (word, bits) -> word & bits) & mask) != 0;
+  }
+
+  /**
+   * Adds all floors of the other set, one atomic update per word. Each new floor is passed to the
+   * consumer, floors already present are not.
+   */
+  public void addAll(FloorBitSet other, IntConsumer newFloors) {
+    int wordCount = Math.min(words.length(), other.words.length());
+    for (int i = 0; i < wordCount; i++) {
+      long mask = other.words.get(i);
+      if (mask == 0) {
+        continue;
+      }
+      long added = mask & ~words.getAndAccumulate(i, mask, (word, bits) -> word | bits);
+      while (added != 0) {
+        newFloors.accept(lowestBit(i, added));
+        added &= added - 1;
+      }
+    }
+  }
+
+  public boolean contains(int floor) {
+    return (words.get(wordIndex(floor)) & (1L << floor)) != 0;
+  }
+
+  public void clear() {
+    for (int i = 0; i < words.length(); i++) {
+      words.set(i, 0L);
+    }
+  }
+
+  public boolean isEmpty() {
+    for (int i = 0; i < words.length(); i++) {
+      if (words.get(i) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the highest floor in the set, or {@link #NONE} if the set is empty.
+   */
+  public int highest() {
+    for (int i = words.length() - 1; i >= 0; i--) {
+      long word = words.get(i);
+      if (word != 0) {
+        return highestBit(i, word);
+      }
+    }
+    return NONE;
+  }
+
+  /**
+   * Returns the lowest floor in the set, or {@link #NONE} if the set is empty.
+   */
+  public int lowest() {
+    for (int i = 0; i < words.length(); i++) {
+      long word = words.get(i);
+      if (word != 0) {
+        return lowestBit(i, word);
+      }
+    }
+    return NONE;
+  }
+
+  /**
+   * Counts the floors in the set between the given floors, both inclusive.
+   */
+  public int countInRange(int lowerFloor, int upperFloor) {
+    int lower = Math.max(lowerFloor, 0);
+    int upper = Math.min(upperFloor, maxFloor);
+    if (lower > upper) {
+      return 0;
+    }
+    int first = lower >> WORD_SHIFT;
+    int last = upper >> WORD_SHIFT;
+    int count = 0;
+    for (int i = first; i <= last; i++) {
+      long word = words.get(i);
+      if (i == first) {
+        word &= ALL_BITS << lower;
+      }
+      if (i == last) {
+        word &= ALL_BITS >>> (63 - (upper & 63));
+      }
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  public IntStream stream() {
+    return IntStream.rangeClosed(0, maxFloor).filter(this::contains);
+  }
+
+  int wordCount() {
+    return words.length();
+  }
+
+  long word(int index) {
+    return words.get(index);
+  }
+
+  static int highestBit(int wordIndex, long word) {
+    return (wordIndex << WORD_SHIFT) + 63 - Long.numberOfLeadingZeros(word);
+  }
+
+  static int lowestBit(int wordIndex, long word) {
+    return (wordIndex << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+  }
+
+  private int wordIndex(int floor) {
+    if (floor < 0 || floor > maxFloor) {
+      throw new IndexOutOfBoundsException("Floor " + floor + " outside 0.." + maxFloor);
+    }
+    return floor >> WORD_SHIFT;
+  }
+}
@@ -0,0 +1,119 @@
+package com.example.elevator.elevator;
+
+/**
+ * Pending orders of a car, one {@link FloorBitSet} per {@link OrderType}. Queries across all
+ * order types combine the sets word by word, so they take a handful of bit operations for a
+ * building of any realistic height and never allocate. The visibility guarantees are those of
+ * {@link FloorBitSet}.
+ */
+public class FloorOrderIndex {
+
+  public static final int NONE = FloorBitSet.NONE;
+
+  private final FloorBitSet ordersUp; // Ordered by up button on floor
+  private final FloorBitSet ordersDown; // Ordered by down button on floor
+  private final FloorBitSet ordersNeutral; // Ordered by elevator buttons
+
+  public FloorOrderIndex(int totalFloors) {
+    this.ordersUp = new FloorBitSet(totalFloors);
+    this.ordersDown = new FloorBitSet(totalFloors);
+    this.ordersNeutral = new FloorBitSet(totalFloors);
+  }
+
+  /**
+   * Creates an index over the given sets, which are shared, not copied.
+   */
+  FloorOrderIndex(FloorBitSet ordersUp, FloorBitSet ordersDown, FloorBitSet ordersNeutral) {
+    this.ordersUp = ordersUp;
+    this.ordersDown = ordersDown;
+    this.ordersNeutral = ordersNeutral;
+  }
+
+  public FloorBitSet get(OrderType orderType) {
+    switch (orderType) {
+      case UP:
+        return ordersUp;
+      case DOWN:
+        return ordersDown;
+      default:
+        return ordersNeutral;
+    }
+  }
+
+  public boolean add(int floor, OrderType orderType) {
+    return get(orderType).add(floor);
+  }
+
+  public boolean remove(int floor, OrderType orderType) {
+    return get(orderType).remove(floor);
+  }
+
+  public boolean contains(int floor, OrderType orderType) {
+    return get(orderType).contains(floor);
+  }
+
+  public int countInRange(OrderType orderType, int lowerFloor, int upperFloor) {
+    return get(orderType).countInRange(lowerFloor, upperFloor);
+  }
+
+  /**
+   * Counts pending orders of all types, an order per type and floor.
+   */
+  public int size() {
+    int size = 0;
+    for (int i = 0; i < ordersUp.wordCount(); i++) {
+      size += Long.bitCount(ordersUp.word(i)) + Long.bitCount(ordersDown.word(i))
+          + Long.bitCount(ordersNeutral.word(i));
+    }
+    return size;
+  }
+
+  public void clear() {
+    ordersNeutral.clear();
+    ordersUp.clear();
+    ordersDown.clear();
+  }
+
+  public boolean isEmpty() {
+    return ordersNeutral.isEmpty() && ordersUp.isEmpty() && ordersDown.isEmpty();
+  }
+
+  /**
+   * Returns the highest floor with an order of any type, or {@link #NONE} if there are none.
+   */
+  public int highest() {
+    for (int i = ordersUp.wordCount() - 1; i >= 0; i--) {
+      long word = combinedWord(i);
+      if (word != 0) {
+        return FloorBitSet.highestBit(i, word);
+      }
+    }
+    return NONE;
+  }
+
+  /**
+   * Returns the lowest floor with an order of any type, or {@link #NONE} if there are none.
+   */
+  public int lowest() {
+    for (int i = 0; i < ordersUp.wordCount(); i++) {
+      long word = combinedWord(i);
+      if (word != 0) {
+        return FloorBitSet.lowestBit(i, word);
+      }
+    }
+    return NONE;
+  }
+
+  public boolean hasOrdersAbove(int floor) {
+    return highest() > floor;
+  }
+
+  public boolean hasOrdersBelow(int floor) {
+    int lowest = lowest();
+    return lowest != NONE && lowest < floor;
+  }
+
+  private long combinedWord(int index) {
+    return ordersUp.word(index) | ordersDown.word(index) | ordersNeutral.word(index);
+  }
+}
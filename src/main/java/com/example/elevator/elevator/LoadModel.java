@@ -0,0 +1,38 @@
+package com.example.elevator.elevator;
+
+import lombok.Value;
+
+/**
+ * How many passengers a car carries and how long they take to get on and off. With
+ * {@link #UNLIMITED} a car is never full and the door stays open for the door time only.
+ */
+@Value
+public class LoadModel {
+
+  public static final LoadModel UNLIMITED = new LoadModel(Integer.MAX_VALUE, 0);
+
+  int capacity;
+  long transferMillisPerPassenger;
+
+  public LoadModel(int capacity, long transferMillisPerPassenger) {
+    if (capacity <= 0 || transferMillisPerPassenger < 0) {
+      throw new IllegalArgumentException(
+          "Capacity must be positive and transfer time not negative");
+    }
+    this.capacity = capacity;
+    this.transferMillisPerPassenger = transferMillisPerPassenger;
+  }
+
+  public long transferMillis(int passengers) {
+    return passengers * transferMillisPerPassenger;
+  }
+
+  /**
+   * Returns how long the door is expected to stay open at a stop. The passengers on board are
+   * expected to leave evenly over the car calls, and at least one passenger to get on or off.
+   */
+  public long expectedDwellMillis(long doorMillis, int load, int carCalls) {
+    int passengers = carCalls > 0 ? (load + carCalls - 1) / carCalls : 0;
+    return doorMillis + transferMillis(Math.max(passengers, 1));
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.elevator.elevator;
+
+/**
+ * LOOK planner: the car keeps its direction while there are orders ahead, then reverses at the
+ * last of them instead of running on to the end of the shaft.
+ *
+ * <p>Going up, it stops for car calls and up calls, and for a down call only at the top of the
+ * sweep. Going back down it stops for down calls, for car calls it did not pass yet and for an up
+ * call only at the bottom. Up calls below the starting floor are left for a final sweep up.
+ * Going down mirrors this. An idle car serves a hall call on its own floor in the direction of
+ * that call, otherwise it heads for the nearest order, preferring up on a tie.
+ */
+public class LookRoutePlanner implements RoutePlanner {
+
+  private static final int NONE = FloorOrderIndex.NONE;
+
+  @Override
+  public Route plan(int currentFloor, ElevatorState state, FloorOrderIndex orders) {
+    if (orders.isEmpty()) {
+      return Route.EMPTY;
+    }
+    boolean up = ElevatorState.IDLE.equals(state)
+        ? startsUp(currentFloor, orders)
+        : ElevatorState.GOING_UP.equals(state);
+    int direction = up ? 1 : -1;
+    OrderType ahead = up ? OrderType.UP : OrderType.DOWN;
+    OrderType back = up ? OrderType.DOWN : OrderType.UP;
+
+    int highest = Math.max(orders.highest(), currentFloor);
+    int lowest = Math.min(orders.lowest(), currentFloor);
+    Route.Builder route = new Route.Builder(3 * (highest - lowest + 1));
+
+    // First sweep, from the current floor to the last order ahead
+    int far = up ? highest : lowest;
+    for (int floor = currentFloor; floor != far; floor += direction) {
+      route.addIfOrdered(floor, orders, OrderType.NEUTRAL, ahead);
+    }
+    route.addIfOrdered(far, orders, OrderType.NEUTRAL, ahead, back);
+
+    // Sweep back, to the last order not served on the way out
+    int near = NONE;
+    for (int floor = up ? lowest : highest; floor != far; floor += direction) {
+      boolean passed = (floor - currentFloor) * direction >= 0;
+      if (orders.contains(floor, back) || !passed
+          && (orders.contains(floor, OrderType.NEUTRAL) || orders.contains(floor, ahead))) {
+        near = floor;
+        break;
+      }
+    }
+    if (near == NONE) {
+      return route.build();
+    }
+    for (int floor = far - direction; floor != near; floor -= direction) {
+      if ((floor - currentFloor) * direction >= 0) {
+        route.addIfOrdered(floor, orders, back);
+      } else {
+        route.addIfOrdered(floor, orders, OrderType.NEUTRAL, back);
+      }
+    }
+    route.addIfOrdered(near, orders, OrderType.NEUTRAL, back, ahead);
+
+    // Final sweep, for calls in the first direction that were behind the car
+    for (int floor = near + direction; (floor - currentFloor) * direction < 0;
+        floor += direction) {
+      route.addIfOrdered(floor, orders, ahead);
+    }
+    return route.build();
+  }
+
+  private static boolean startsUp(int currentFloor, FloorOrderIndex orders) {
+    if (orders.contains(currentFloor, OrderType.UP)) {
+      return true;
+    }
+    if (orders.contains(currentFloor, OrderType.DOWN)) {
+      return false;
+    }
+    int above = nearestAbove(currentFloor, orders);
+    int below = nearestBelow(currentFloor, orders);
+    if (above == NONE || below == NONE) {
+      return below == NONE;
+    }
+    return above - currentFloor <= currentFloor - below;
+  }
+
+  private static int nearestAbove(int currentFloor, FloorOrderIndex orders) {
+    int highest = orders.highest();
+    for (int floor = currentFloor + 1; floor <= highest; floor++) {
+      if (isOrdered(floor, orders)) {
+        return floor;
+      }
+    }
+    return NONE;
+  }
+
+  private static int nearestBelow(int currentFloor, FloorOrderIndex orders) {
+    int lowest = orders.lowest();
+    for (int floor = currentFloor - 1; lowest != NONE && floor >= lowest; floor--) {
+      if (isOrdered(floor, orders)) {
+        return floor;
+      }
+    }
+    return NONE;
+  }
+
+  private static boolean isOrdered(int floor, FloorOrderIndex orders) {
+    return orders.contains(floor, OrderType.UP) || orders.contains(floor, OrderType.DOWN)
+        || orders.contains(floor, OrderType.NEUTRAL);
+  }
+}
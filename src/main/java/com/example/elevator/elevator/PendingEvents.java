@@ -0,0 +1,84 @@
+package com.example.elevator.elevator;
+
+/**
+ * Events of a car waiting to be passed to its listeners, oldest first. Events are recorded under
+ * the car lock and passed on after it is released, so listeners never hold up the car. The queue
+ * grows when listeners fall behind and is reused afterwards, so recording does not allocate.
+ * Guarded by the car lock.
+ */
+class PendingEvents {
+
+  static final byte STATE_CHANGED = 0;
+  static final byte FLOOR_REACHED = 1;
+  static final byte DOOR_OPENED = 2;
+  static final byte ORDER_SERVED = 3;
+  static final byte ORDER_REMOVED = 4;
+
+  private byte[] types = new byte[8];
+  private int[] floors = new int[8];
+  private ElevatorState[] states = new ElevatorState[8];
+  private OrderType[] orderTypes = new OrderType[8];
+  private int head;
+  private int size;
+
+  void add(byte type, int floor, ElevatorState state, OrderType orderType) {
+    if (size == types.length) {
+      grow();
+    }
+    int tail = (head + size) % types.length;
+    types[tail] = type;
+    floors[tail] = floor;
+    states[tail] = state;
+    orderTypes[tail] = orderType;
+    size++;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  byte type() {
+    return types[head];
+  }
+
+  int floor() {
+    return floors[head];
+  }
+
+  ElevatorState state() {
+    return states[head];
+  }
+
+  OrderType orderType() {
+    return orderTypes[head];
+  }
+
+  /**
+   * Drops the oldest event.
+   */
+  void remove() {
+    states[head] = null;
+    orderTypes[head] = null;
+    head = (head + 1) % types.length;
+    size--;
+  }
+
+  private void grow() {
+    byte[] grownTypes = new byte[types.length * 2];
+    int[] grownFloors = new int[types.length * 2];
+    ElevatorState[] grownStates = new ElevatorState[types.length * 2];
+    OrderType[] grownOrderTypes = new OrderType[types.length * 2];
+    for (int i = 0; i < size; i++) {
+      int at = (head + i) % types.length;
+      grownTypes[i] = types[at];
+      grownFloors[i] = floors[at];
+      grownStates[i] = states[at];
+      grownOrderTypes[i] = orderTypes[at];
+    }
+    types = grownTypes;
+    floors = grownFloors;
+    states = grownStates;
+    orderTypes = grownOrderTypes;
+    head = 0;
+  }
+}
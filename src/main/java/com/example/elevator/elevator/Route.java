@@ -0,0 +1,83 @@
+package com.example.elevator.elevator;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Planned stops of a car, in the order they are visited. Each stop names the order types the car
+ * serves there, so a hall call in the other direction is left for the trip back.
+ */
+public class Route {
+
+  public static final Route EMPTY = new Route(new int[0], new int[0]);
+
+  private final int[] floors;
+  private final int[] orderTypes; // Bit per order type ordinal
+
+  private Route(int[] floors, int[] orderTypes) {
+    this.floors = floors;
+    this.orderTypes = orderTypes;
+  }
+
+  public int size() {
+    return floors.length;
+  }
+
+  public int getFloor(int stop) {
+    return floors[stop];
+  }
+
+  public boolean serves(int stop, OrderType orderType) {
+    return (orderTypes[stop] & bit(orderType)) != 0;
+  }
+
+  /**
+   * Returns the floors of all stops, for tests and diagnostics.
+   */
+  public IntStream floors() {
+    return Arrays.stream(floors);
+  }
+
+  static int bit(OrderType orderType) {
+    return 1 << orderType.ordinal();
+  }
+
+  /**
+   * Collects stops of a route, holding at most the given number of stops.
+   */
+  public static class Builder {
+
+    private final int[] floors;
+    private final int[] orderTypes;
+    private int size;
+
+    public Builder(int maxStops) {
+      this.floors = new int[maxStops];
+      this.orderTypes = new int[maxStops];
+    }
+
+    /**
+     * Adds a stop serving the given order types if there is an order of one of them on the
+     * floor.
+     */
+    public Builder addIfOrdered(int floor, FloorOrderIndex orders, OrderType... served) {
+      int bits = 0;
+      boolean ordered = false;
+      for (OrderType orderType : served) {
+        bits |= bit(orderType);
+        ordered |= orders.contains(floor, orderType);
+      }
+      if (ordered) {
+        floors[size] = floor;
+        orderTypes[size] = bits;
+        size++;
+      }
+      return this;
+    }
+
+    public Route build() {
+      return size == 0 ? EMPTY
+          : new Route(Arrays.copyOf(floors, size), Arrays.copyOf(orderTypes, size));
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.example.elevator.elevator;
+
+/**
+ * Plans the stops of a car. A car asks for a new plan when its orders have changed since the
+ * last one and otherwise follows the plan, so a planner may take time proportional to the
+ * building height.
+ */
+public interface RoutePlanner {
+
+  /**
+   * Returns the stops serving all given orders, starting with the current floor if the car
+   * should open its door there. The car is standing on or just arrived at the current floor and
+   * is travelling in the direction of its state, or choosing one if it is idle.
+   */
+  Route plan(int currentFloor, ElevatorState state, FloorOrderIndex orders);
+}
@@ -0,0 +1,14 @@
+package com.example.elevator.events;
+
+import com.example.elevator.elevator.ElevatorState;
+import lombok.Value;
+
+@Value
+public class ElevatorEvent {
+
+  ElevatorEventType type;
+  int elevator;
+  int floor;
+  ElevatorState state;
+  long timeMillis;
+}
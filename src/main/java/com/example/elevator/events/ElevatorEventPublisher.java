@@ -0,0 +1,176 @@
+package com.example.elevator.events;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorListener;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.time.TimeSource;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes car events to Server-Sent Events subscribers.
+ *
+ * <p>The movement thread only stores the event in a slot per car and event type of each
+ * subscriber and schedules a flush, it never writes to a connection. A flush sends the latest
+ * event of every slot, so a slow subscriber skips intermediate floors instead of building up a
+ * backlog, and memory per subscriber is fixed.
+ */
+@Component
+@Slf4j
+public class ElevatorEventPublisher implements ElevatorListener {
+
+  private static final int EVENT_TYPES = ElevatorEventType.values().length;
+
+  private final ElevatorBank bank;
+  private final TimeSource timeSource;
+  private final long timeoutMillis;
+  private final ExecutorService executor;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  @Autowired
+  public ElevatorEventPublisher(ElevatorBank bank, TimeSource timeSource,
+      @Value("${elevator.events.threads:2}") int threads,
+      @Value("${elevator.events.timeoutMillis:1800000}") long timeoutMillis) {
+    this.bank = bank;
+    this.timeSource = timeSource;
+    this.timeoutMillis = timeoutMillis;
+    this.executor = Executors.newFixedThreadPool(threads);
+  }
+
+  @PostConstruct
+  public void start() {
+    for (Elevator elevator : bank.getElevators()) {
+      elevator.addListener(this);
+    }
+  }
+
+  public SseEmitter subscribe() {
+    return subscribe(new SseEmitter(timeoutMillis));
+  }
+
+  SseEmitter subscribe(SseEmitter emitter) {
+    Subscriber subscriber = new Subscriber(emitter);
+    subscribers.add(subscriber);
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(e -> subscribers.remove(subscriber));
+
+    // Start every subscriber from the current state of each car
+    for (Elevator elevator : bank.getElevators()) {
+      subscriber.offer(event(ElevatorEventType.STATE_CHANGED, elevator,
+          elevator.getCurrentFloor(), elevator.getState()));
+    }
+    return emitter;
+  }
+
+  @Override
+  public void onStateChanged(Elevator elevator, ElevatorState state) {
+    publish(ElevatorEventType.STATE_CHANGED, elevator, elevator.getCurrentFloor(), state);
+  }
+
+  @Override
+  public void onFloorReached(Elevator elevator, int floor) {
+    publish(ElevatorEventType.FLOOR_REACHED, elevator, floor, elevator.getState());
+  }
+
+  @Override
+  public void onDoorOpened(Elevator elevator, int floor) {
+    publish(ElevatorEventType.DOOR_OPENED, elevator, floor, elevator.getState());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+    for (Subscriber subscriber : subscribers) {
+      subscriber.emitter.complete();
+    }
+  }
+
+  private void publish(ElevatorEventType type, Elevator elevator, int floor,
+      ElevatorState state) {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    ElevatorEvent event = event(type, elevator, floor, state);
+    for (Subscriber subscriber : subscribers) {
+      subscriber.offer(event);
+    }
+  }
+
+  private ElevatorEvent event(ElevatorEventType type, Elevator elevator, int floor,
+      ElevatorState state) {
+    return new ElevatorEvent(type, elevator.getId(), floor, state,
+        timeSource.currentTimeMillis());
+  }
+
+  private class Subscriber implements Runnable {
+
+    private final SseEmitter emitter;
+    private final AtomicReferenceArray<ElevatorEvent> latest;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    Subscriber(SseEmitter emitter) {
+      this.emitter = emitter;
+      this.latest = new AtomicReferenceArray<>(bank.getElevators().size() * EVENT_TYPES);
+    }
+
+    void offer(ElevatorEvent event) {
+      latest.set(event.getElevator() * EVENT_TYPES + event.getType().ordinal(), event);
+      if (flushScheduled.compareAndSet(false, true)) {
+        executor.execute(this);
+      }
+    }
+
+    @Override
+    public void run() {
+      // The flag stays set while draining, so a subscriber is only ever flushed by one thread and
+      // its events are sent in order. Events stored after the drain are sent by another round.
+      do {
+        if (!drain()) {
+          return;
+        }
+        flushScheduled.set(false);
+      } while (hasPending() && flushScheduled.compareAndSet(false, true));
+    }
+
+    private boolean drain() {
+      try {
+        for (int slot = 0; slot < latest.length(); slot++) {
+          ElevatorEvent event = latest.getAndSet(slot, null);
+          if (event != null) {
+            emitter.send(SseEmitter.event().name(event.getType().name()).data(event));
+          }
+        }
+        return true;
+      } catch (IOException | IllegalStateException e) {
+        // The flag is left set, so no flush is scheduled for the dropped subscriber
+        log.debug("Dropping event subscriber", e);
+        subscribers.remove(this);
+        emitter.completeWithError(e);
+        return false;
+      }
+    }
+
+    private boolean hasPending() {
+      for (int slot = 0; slot < latest.length(); slot++) {
+        if (latest.get(slot) != null) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
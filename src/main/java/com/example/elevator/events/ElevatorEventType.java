@@ -0,0 +1,7 @@
+package com.example.elevator.events;
+
+public enum ElevatorEventType {
+  STATE_CHANGED,
+  FLOOR_REACHED,
+  DOOR_OPENED;
+}
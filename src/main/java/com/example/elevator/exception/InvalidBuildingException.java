@@ -0,0 +1,8 @@
+package com.example.elevator.exception;
+
+public class InvalidBuildingException extends RuntimeException {
+
+  public InvalidBuildingException(String message) {
+    super(message);
+  }
+}
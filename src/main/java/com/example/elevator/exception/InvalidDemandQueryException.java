@@ -0,0 +1,8 @@
+package com.example.elevator.exception;
+
+public class InvalidDemandQueryException extends RuntimeException {
+
+  public InvalidDemandQueryException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.example.elevator.exception;
+
+public class InvalidElevatorException extends RuntimeException {
+
+  public InvalidElevatorException(String message) {
+    super(message);
+  }
+}
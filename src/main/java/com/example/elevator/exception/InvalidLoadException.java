@@ -0,0 +1,8 @@
+package com.example.elevator.exception;
+
+public class InvalidLoadException extends RuntimeException {
+
+  public InvalidLoadException(String message) {
+    super(message);
+  }
+}
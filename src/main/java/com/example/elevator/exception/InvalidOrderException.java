@@ -0,0 +1,8 @@
+package com.example.elevator.exception;
+
+public class InvalidOrderException extends RuntimeException {
+
+  public InvalidOrderException(String message) {
+    super(message);
+  }
+}
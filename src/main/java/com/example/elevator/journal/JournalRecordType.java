@@ -0,0 +1,26 @@
+package com.example.elevator.journal;
+
+/**
+ * Kinds of journal records. The code of a record type is its ordinal plus one, so a zeroed slot
+ * of the journal never reads as a record.
+ */
+enum JournalRecordType {
+  ORDER_ADDED,
+  ORDER_SERVED,
+  FLOOR_REACHED,
+  EMERGENCY_BREAK,
+  RESUMED;
+
+  private static final JournalRecordType[] TYPES = values();
+
+  byte code() {
+    return (byte) (ordinal() + 1);
+  }
+
+  /**
+   * Returns the record type with the given code, or null for an empty or unknown slot.
+   */
+  static JournalRecordType of(byte code) {
+    return code > 0 && code <= TYPES.length ? TYPES[code - 1] : null;
+  }
+}
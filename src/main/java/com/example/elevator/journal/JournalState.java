@@ -0,0 +1,156 @@
+package com.example.elevator.journal;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.FloorOrderIndex;
+import com.example.elevator.elevator.OrderType;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Floor, emergency break and pending orders of every car of a bank, as rebuilt from a snapshot
+ * and the journal records written after it. Applying a record twice has the same effect as
+ * applying it once. The epoch numbers the snapshot; records written after it carry the same
+ * epoch.
+ */
+class JournalState {
+
+  private static final int MAGIC = 0x454c564a; // "ELVJ"
+  private static final OrderType[] ORDER_TYPES = OrderType.values();
+
+  private final long epoch;
+  private final int totalFloors;
+  private final int[] floors;
+  private final boolean[] emergencyBreaks;
+  private final FloorOrderIndex[] orders;
+
+  JournalState(long epoch, int cars, int totalFloors) {
+    this.epoch = epoch;
+    this.totalFloors = totalFloors;
+    this.floors = new int[cars];
+    this.emergencyBreaks = new boolean[cars];
+    this.orders = new FloorOrderIndex[cars];
+    for (int car = 0; car < cars; car++) {
+      floors[car] = 1;
+      orders[car] = new FloorOrderIndex(totalFloors);
+    }
+  }
+
+  /**
+   * Captures the live state of the given cars.
+   */
+  static JournalState of(long epoch, List<Elevator> elevators, int totalFloors) {
+    JournalState state = new JournalState(epoch, elevators.size(), totalFloors);
+    for (Elevator elevator : elevators) {
+      int car = elevator.getId();
+      state.floors[car] = elevator.getCurrentFloor();
+      state.emergencyBreaks[car] = ElevatorState.EMERGENCY_BREAK.equals(elevator.getState());
+      for (OrderType orderType : ORDER_TYPES) {
+        elevator.getOrders().get(orderType).stream()
+            .forEach(floor -> state.orders[car].add(floor, orderType));
+      }
+    }
+    return state;
+  }
+
+  /**
+   * Applies a journal record. Returns false if the record does not fit this bank.
+   */
+  boolean apply(JournalRecordType type, int car, int floor, OrderType orderType) {
+    if (car < 0 || car >= floors.length || floor < 1 || floor > totalFloors) {
+      return false;
+    }
+    switch (type) {
+      case ORDER_ADDED:
+        orders[car].add(floor, orderType);
+        break;
+      case ORDER_SERVED:
+        orders[car].remove(floor, orderType);
+        break;
+      case FLOOR_REACHED:
+        floors[car] = floor;
+        break;
+      case RESUMED:
+        emergencyBreaks[car] = false;
+        break;
+      default:
+        floors[car] = floor;
+        emergencyBreaks[car] = true;
+        orders[car].clear();
+    }
+    return true;
+  }
+
+  /**
+   * Moves the cars to the recovered floors and adds the recovered orders. The cars must not be
+   * moving yet.
+   */
+  void restore(List<Elevator> elevators) {
+    for (Elevator elevator : elevators) {
+      int car = elevator.getId();
+      elevator.setCurrentFloor(floors[car]);
+      if (emergencyBreaks[car]) {
+        elevator.emergencyBreak();
+      }
+      elevator.addOrders(orders[car]);
+    }
+  }
+
+  long getEpoch() {
+    return epoch;
+  }
+
+  int pendingOrders() {
+    int pending = 0;
+    for (FloorOrderIndex carOrders : orders) {
+      pending += carOrders.size();
+    }
+    return pending;
+  }
+
+  void write(DataOutputStream out) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeLong(epoch);
+    out.writeInt(floors.length);
+    out.writeInt(totalFloors);
+    for (int car = 0; car < floors.length; car++) {
+      out.writeInt(floors[car]);
+      out.writeBoolean(emergencyBreaks[car]);
+      for (OrderType orderType : ORDER_TYPES) {
+        int[] ordered = orders[car].get(orderType).stream().toArray();
+        out.writeInt(ordered.length);
+        for (int floor : ordered) {
+          out.writeInt(floor);
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads a snapshot written by {@link #write}. Returns null if the snapshot was taken of a bank
+   * with a different number of cars or floors.
+   */
+  static JournalState read(DataInputStream in, int cars, int totalFloors) throws IOException {
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not an elevator journal snapshot");
+    }
+    long epoch = in.readLong();
+    if (in.readInt() != cars || in.readInt() != totalFloors) {
+      return null;
+    }
+    JournalState state = new JournalState(epoch, cars, totalFloors);
+    for (int car = 0; car < cars; car++) {
+      state.floors[car] = in.readInt();
+      state.emergencyBreaks[car] = in.readBoolean();
+      for (OrderType orderType : ORDER_TYPES) {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+          state.orders[car].add(in.readInt(), orderType);
+        }
+      }
+    }
+    return state;
+  }
+}
@@ -0,0 +1,347 @@
+package com.example.elevator.journal;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorListener;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.OrderType;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Journals orders, served orders, floor arrivals and emergency breaks of the default building to
+ * a memory-mapped file, so a restarted node resumes with the floors and pending orders it had.
+ *
+ * <p>Records are fixed size and written with plain stores into a mapped segment, which the
+ * operating system keeps when the process dies. The file holds two segments. When the active one
+ * is full, and periodically, journaling switches to the other one under a new epoch, and a
+ * background thread writes the live state of the cars to a snapshot of that epoch. Records carry
+ * the epoch of the snapshot they follow, so recovery reads the snapshot and replays its records,
+ * then those of the next epoch if the node died before that snapshot was written. Appending a
+ * record never does I/O; it only waits if both segments fill up before a snapshot is written.
+ */
+@Component
+@ConditionalOnProperty(name = "elevator.journal.enabled", havingValue = "true")
+@Slf4j
+public class OrderJournal implements ElevatorListener {
+
+  static final int RECORD_BYTES = 16;
+  static final String JOURNAL_FILE = "orders.journal";
+  static final String SNAPSHOT_FILE = "orders.snapshot";
+
+  private static final int SEGMENTS = 2;
+  private static final OrderType[] ORDER_TYPES = OrderType.values();
+
+  private final ElevatorBank bank;
+  private final Path directory;
+  private final int segmentBytes;
+  private final long snapshotIntervalSeconds;
+  private final Set<Elevator> braked = ConcurrentHashMap.newKeySet();
+  private ScheduledExecutorService snapshotter;
+  private FileChannel channel;
+  private MappedByteBuffer[] segments; // Guarded by this, like the fields below
+  private int active;
+  private long epoch; // Of the records in the active segment
+  private int position;
+  private boolean spareFree; // The records in the other segment are covered by a snapshot
+
+  @Autowired
+  public OrderJournal(ElevatorBank bank,
+      @Value("${elevator.journal.directory:journal}") Path directory,
+      @Value("${elevator.journal.segmentBytes:16777216}") int segmentBytes,
+      @Value("${elevator.journal.snapshotIntervalSeconds:60}") long snapshotIntervalSeconds) {
+    if (segmentBytes < RECORD_BYTES) {
+      throw new IllegalArgumentException("Journal segment must hold at least one record");
+    }
+    this.bank = bank;
+    this.directory = directory;
+    this.segmentBytes = segmentBytes - segmentBytes % RECORD_BYTES;
+    this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+  }
+
+  /**
+   * Restores the cars from the journal, then starts journaling. Must run before the cars are
+   * given orders.
+   */
+  @PostConstruct
+  public synchronized void start() throws IOException {
+    long startNanos = System.nanoTime();
+    Files.createDirectories(directory);
+    JournalState recovered = recover();
+    long recoveredEpoch = 0;
+    if (recovered != null) {
+      recovered.restore(bank.getElevators());
+      recoveredEpoch = recovered.getEpoch();
+      log.info("Recovered {} pending orders from journal in {} ms", recovered.pendingOrders(),
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    channel = FileChannel.open(directory.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    segments = new MappedByteBuffer[SEGMENTS];
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * segmentBytes,
+          segmentBytes);
+    }
+    // Records of the recovered epoch and the one after it may be left in the segments, so the
+    // snapshot of the restored state starts past both
+    epoch = recoveredEpoch + SEGMENTS;
+    writeSnapshot(epoch);
+    active = 0;
+    position = 0;
+    spareFree = true;
+    segments[active].put(0, (byte) 0);
+
+    for (Elevator elevator : bank.getElevators()) {
+      if (ElevatorState.EMERGENCY_BREAK.equals(elevator.getState())) {
+        braked.add(elevator);
+      }
+      elevator.addListener(this);
+    }
+    snapshotter = Executors.newSingleThreadScheduledExecutor();
+    if (snapshotIntervalSeconds > 0) {
+      snapshotter.scheduleWithFixedDelay(this::periodicSnapshot, snapshotIntervalSeconds,
+          snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    if (snapshotter != null) {
+      // Lets a snapshot being written finish, so the last one written is the newest
+      snapshotter.shutdownNow();
+      try {
+        snapshotter.awaitTermination(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    long finalEpoch;
+    synchronized (this) {
+      if (segments == null) {
+        return;
+      }
+      segments = null;
+      channel.close();
+      finalEpoch = epoch + 1;
+      // Wakes appends waiting for a segment, they find the journal closed
+      notifyAll();
+    }
+    writeSnapshot(finalEpoch);
+  }
+
+  @Override
+  public void onOrderAdded(Elevator elevator, int floor, OrderType orderType) {
+    append(JournalRecordType.ORDER_ADDED, elevator, floor, orderType);
+  }
+
+  @Override
+  public void onOrderServed(Elevator elevator, int floor, OrderType orderType) {
+    onOrderRemoved(elevator, floor, orderType);
+  }
+
+  @Override
+  public synchronized void onOrderRemoved(Elevator elevator, int floor, OrderType orderType) {
+    // An order added again before this call may be journaled already, so the removal is left out.
+    // Checked under the journal lock, so an order added again afterwards is journaled after it.
+    if (!elevator.getOrders().contains(floor, orderType)) {
+      append(JournalRecordType.ORDER_SERVED, elevator, floor, orderType);
+    }
+  }
+
+  @Override
+  public void onFloorReached(Elevator elevator, int floor) {
+    append(JournalRecordType.FLOOR_REACHED, elevator, floor, OrderType.NEUTRAL);
+  }
+
+  @Override
+  public void onStateChanged(Elevator elevator, ElevatorState state) {
+    if (ElevatorState.EMERGENCY_BREAK.equals(state)) {
+      braked.add(elevator);
+      append(JournalRecordType.EMERGENCY_BREAK, elevator, elevator.getCurrentFloor(),
+          OrderType.NEUTRAL);
+    } else if (braked.remove(elevator)) {
+      append(JournalRecordType.RESUMED, elevator, elevator.getCurrentFloor(), OrderType.NEUTRAL);
+    }
+  }
+
+  private synchronized void append(JournalRecordType type, Elevator elevator, int floor,
+      OrderType orderType) {
+    if (segments == null) {
+      return;
+    }
+    if (position + RECORD_BYTES > segmentBytes) {
+      if (!spareFree) {
+        log.warn("Both journal segments are full, waiting for the snapshot");
+      }
+      try {
+        while (!spareFree && segments != null) {
+          wait();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        log.error("Interrupted waiting for a journal segment, dropping journal record");
+        return;
+      }
+      if (segments == null) {
+        return;
+      }
+      long nextEpoch = switchSegment();
+      snapshotter.execute(() -> writeSnapshotQuietly(nextEpoch));
+    }
+    MappedByteBuffer segment = segments[active];
+    segment.putLong(position + 8, epoch);
+    segment.putInt(position + 4, floor);
+    segment.putShort(position + 2, (short) elevator.getId());
+    segment.put(position + 1, (byte) orderType.ordinal());
+    // Type last, a record cut short by a crash reads as the end of the journal
+    VarHandle.releaseFence();
+    segment.put(position, type.code());
+    position += RECORD_BYTES;
+  }
+
+  /**
+   * Continues in the other segment under the next epoch and returns the epoch. The other segment
+   * must be free; it is not until the snapshot of the new epoch is written.
+   */
+  private long switchSegment() {
+    active = (active + 1) % SEGMENTS;
+    epoch++;
+    position = 0;
+    spareFree = false;
+    // Old records of the segment are of an older epoch, this only ends it early
+    segments[active].put(0, (byte) 0);
+    return epoch;
+  }
+
+  private void periodicSnapshot() {
+    long nextEpoch;
+    synchronized (this) {
+      if (segments == null || !spareFree || position == 0) {
+        return;
+      }
+      nextEpoch = switchSegment();
+    }
+    writeSnapshotQuietly(nextEpoch);
+  }
+
+  private void writeSnapshotQuietly(long snapshotEpoch) {
+    try {
+      writeSnapshot(snapshotEpoch);
+    } catch (IOException e) {
+      // The segment stays in use, so recovery still has its records
+      log.error("Failed to write journal snapshot", e);
+      return;
+    }
+    synchronized (this) {
+      if (snapshotEpoch == epoch) {
+        spareFree = true;
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Writes the live state of the cars to the snapshot, without holding the journal monitor.
+   * Changes journaled before the epoch began were made to the cars, so the snapshot includes
+   * them. Changes journaled in the epoch may be included as well, applying them again on recovery
+   * is harmless.
+   */
+  private void writeSnapshot(long snapshotEpoch) throws IOException {
+    JournalState state = JournalState.of(snapshotEpoch, bank.getElevators(),
+        bank.getTotalFloors());
+    Path temporary = directory.resolve(SNAPSHOT_FILE + "." + snapshotEpoch + ".tmp");
+    try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+      state.write(out);
+      out.flush();
+      file.getFD().sync();
+    }
+    Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Returns the state in the snapshot with the journal records after it applied, or null if
+   * there is no usable snapshot. A journal without a snapshot is deleted.
+   */
+  private JournalState recover() throws IOException {
+    Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+    Path journalFile = directory.resolve(JOURNAL_FILE);
+    JournalState state = null;
+    if (Files.exists(snapshotFile)) {
+      try (DataInputStream in = new DataInputStream(
+          new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+        state = JournalState.read(in, bank.getElevators().size(), bank.getTotalFloors());
+      }
+      if (state == null) {
+        log.warn("Journal in {} was written for a different elevator bank, ignoring it",
+            directory);
+      }
+    }
+    if (state == null) {
+      // Epochs start over, so older records must not be read after new ones
+      Files.deleteIfExists(journalFile);
+      return null;
+    }
+
+    if (Files.exists(journalFile)) {
+      try (FileChannel journal = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+        MappedByteBuffer records = journal.map(FileChannel.MapMode.READ_ONLY, 0, journal.size());
+        // The records of the snapshot's epoch, then those of the next epoch if its snapshot was
+        // not written
+        for (long recordEpoch = state.getEpoch(); recordEpoch < state.getEpoch() + SEGMENTS;
+            recordEpoch++) {
+          for (int start = 0; start + RECORD_BYTES <= records.limit(); start += segmentBytes) {
+            int end = (int) Math.min((long) start + segmentBytes, records.limit());
+            replay(records, start, end, recordEpoch, state);
+          }
+        }
+      }
+    }
+    return state;
+  }
+
+  /**
+   * Applies the records of the given epoch at the start of the given part of the journal.
+   */
+  private static void replay(MappedByteBuffer records, int start, int end, long recordEpoch,
+      JournalState state) {
+    for (int at = start; at + RECORD_BYTES <= end; at += RECORD_BYTES) {
+      JournalRecordType type = JournalRecordType.of(records.get(at));
+      if (type == null || records.getLong(at + 8) != recordEpoch) {
+        return;
+      }
+      int orderType = records.get(at + 1);
+      int car = records.getShort(at + 2);
+      int floor = records.getInt(at + 4);
+      if (orderType < 0 || orderType >= ORDER_TYPES.length
+          || !state.apply(type, car, floor, ORDER_TYPES[orderType])) {
+        log.warn("Skipping invalid journal record at {}", at);
+      }
+    }
+  }
+}
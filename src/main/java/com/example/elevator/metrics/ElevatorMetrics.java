@@ -0,0 +1,248 @@
+package com.example.elevator.metrics;
+
+import com.example.elevator.building.BuildingListener;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorListener;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.TimeSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records order, wait and door metrics from car events.
+ *
+ * <p>When an order is added, the time is remembered per car, floor and order type. The estimated
+ * time of arrival is looked up on the next floor or state change of the car, on the movement
+ * thread, so adding an order never computes estimates. When the car serves the order, hall calls
+ * record the passenger wait time, car calls the in-car travel time, and both record how far the
+ * arrival was from the estimate. Orders withdrawn without being served, like parking trips given
+ * up or hall calls handed to another car, are forgotten without recording anything.
+ *
+ * <p>Cars of buildings added at runtime feed the same meters. Only the cars of the default
+ * building get pending orders and energy meters, to keep the number of time series independent
+ * of the number of buildings.
+ */
+@Component
+public class ElevatorMetrics implements ElevatorListener, BuildingListener {
+
+  private static final int ORDER_TYPES = OrderType.values().length;
+  private static final long NOT_WAITING = Long.MIN_VALUE;
+  private static final long NO_ESTIMATE = Long.MIN_VALUE;
+
+  private final ElevatorBank bank;
+  private final TimeSource timeSource;
+  private final EstimatedTimeCalculator estimatedTimeCalculator;
+  private final MeterRegistry registry;
+
+  private final Map<OrderType, Counter> orders = new EnumMap<>(OrderType.class);
+  private final Counter doorCycles;
+  private final Timer hallCallWait;
+  private final Timer carCallTravel;
+  private final DistributionSummary arrivedLate;
+  private final DistributionSummary arrivedEarly;
+  private final Map<Elevator, CarTimes> carTimes = new ConcurrentHashMap<>();
+
+  @Autowired
+  public ElevatorMetrics(ElevatorBank bank, TimeSource timeSource,
+      EstimatedTimeCalculator estimatedTimeCalculator, MeterRegistry registry) {
+    this.bank = bank;
+    this.timeSource = timeSource;
+    this.estimatedTimeCalculator = estimatedTimeCalculator;
+    this.registry = registry;
+
+    for (OrderType orderType : OrderType.values()) {
+      orders.put(orderType, Counter.builder("elevator.orders")
+          .description("Orders added")
+          .tag("type", orderType.name())
+          .register(registry));
+    }
+    doorCycles = Counter.builder("elevator.door.cycles")
+        .description("Door openings")
+        .register(registry);
+    hallCallWait = Timer.builder("elevator.hallcall.wait")
+        .description("Time from pushing a hall button until the door opens on that floor")
+        .publishPercentileHistogram()
+        .register(registry);
+    carCallTravel = Timer.builder("elevator.carcall.travel")
+        .description("Time from pushing a car button until the door opens on that floor")
+        .publishPercentileHistogram()
+        .register(registry);
+    arrivedLate = DistributionSummary.builder("elevator.eta.error")
+        .description("Difference between actual and estimated arrival")
+        .baseUnit("seconds")
+        .tag("direction", "late")
+        .register(registry);
+    arrivedEarly = DistributionSummary.builder("elevator.eta.error")
+        .description("Difference between actual and estimated arrival")
+        .baseUnit("seconds")
+        .tag("direction", "early")
+        .register(registry);
+  }
+
+  @PostConstruct
+  public void start() {
+    for (Elevator elevator : bank.getElevators()) {
+      Gauge.builder("elevator.orders.pending", elevator, e -> e.getOrders().size())
+          .description("Orders waiting to be served")
+          .tag("elevator", String.valueOf(elevator.getId()))
+          .register(registry);
+      FunctionCounter.builder("elevator.energy", elevator, Elevator::getEnergyJoules)
+          .description("Energy used, valued with the energy model of the car")
+          .baseUnit("joules")
+          .tag("elevator", String.valueOf(elevator.getId()))
+          .register(registry);
+    }
+    track(bank);
+  }
+
+  @Override
+  public void onBuildingAdded(String buildingId, ElevatorBank bank) {
+    track(bank);
+  }
+
+  @Override
+  public void onBuildingRemoved(String buildingId, ElevatorBank bank) {
+    for (Elevator elevator : bank.getElevators()) {
+      carTimes.remove(elevator);
+    }
+  }
+
+  private void track(ElevatorBank bank) {
+    for (Elevator elevator : bank.getElevators()) {
+      carTimes.put(elevator, new CarTimes(ORDER_TYPES * (elevator.getTotalFloors() + 1)));
+      elevator.addListener(this);
+    }
+  }
+
+  @Override
+  public void onOrderAdded(Elevator elevator, int floor, OrderType orderType) {
+    orders.get(orderType).increment();
+    CarTimes times = carTimes.get(elevator);
+    if (times == null) {
+      return;
+    }
+    // Keep the earliest time if the button is pushed again before the car arrives
+    times.orderTimes.compareAndSet(slot(elevator, floor, orderType), NOT_WAITING,
+        timeSource.currentTimeMillis());
+    times.estimatesPending.set(true);
+  }
+
+  @Override
+  public void onFloorReached(Elevator elevator, int floor) {
+    estimateArrivals(elevator);
+  }
+
+  @Override
+  public void onDoorOpened(Elevator elevator, int floor) {
+    doorCycles.increment();
+  }
+
+  @Override
+  public void onOrderServed(Elevator elevator, int floor, OrderType orderType) {
+    CarTimes times = carTimes.get(elevator);
+    if (times == null) {
+      return;
+    }
+    int slot = slot(elevator, floor, orderType);
+    long orderTime = times.orderTimes.getAndSet(slot, NOT_WAITING);
+    long estimatedArrival = times.estimatedArrivals.getAndSet(slot, NO_ESTIMATE);
+    if (orderTime == NOT_WAITING) {
+      return;
+    }
+    long now = timeSource.currentTimeMillis();
+    Timer timer = OrderType.NEUTRAL.equals(orderType) ? carCallTravel : hallCallWait;
+    timer.record(now - orderTime, TimeUnit.MILLISECONDS);
+    if (estimatedArrival != NO_ESTIMATE) {
+      // Orders served before the car moved again have no estimate
+      long error = now - estimatedArrival;
+      (error >= 0 ? arrivedLate : arrivedEarly).record(Math.abs(error) / 1000.0);
+    }
+  }
+
+  @Override
+  public void onOrderRemoved(Elevator elevator, int floor, OrderType orderType) {
+    CarTimes times = carTimes.get(elevator);
+    if (times == null) {
+      return;
+    }
+    // Nobody waits for the withdrawn order, and an order added again starts a new wait
+    int slot = slot(elevator, floor, orderType);
+    times.orderTimes.set(slot, NOT_WAITING);
+    times.estimatedArrivals.set(slot, NO_ESTIMATE);
+  }
+
+  @Override
+  public void onStateChanged(Elevator elevator, ElevatorState state) {
+    CarTimes times = carTimes.get(elevator);
+    if (times != null && ElevatorState.EMERGENCY_BREAK.equals(state)) {
+      // Orders were dropped, their passengers are not waiting for this car any more
+      times.clearOrderTimes();
+      return;
+    }
+    estimateArrivals(elevator);
+  }
+
+  /**
+   * Estimates the arrival of orders added since the last estimate, from one table of the car.
+   */
+  private void estimateArrivals(Elevator elevator) {
+    CarTimes times = carTimes.get(elevator);
+    if (times == null || !times.estimatesPending.getAndSet(false)) {
+      return;
+    }
+    long now = timeSource.currentTimeMillis();
+    int[] estimatedTimes = estimatedTimeCalculator.getEstimatedTimes(elevator);
+    for (OrderType orderType : OrderType.values()) {
+      for (int floor = 1; floor <= elevator.getTotalFloors(); floor++) {
+        int slot = slot(elevator, floor, orderType);
+        if (times.orderTimes.get(slot) != NOT_WAITING) {
+          times.estimatedArrivals.compareAndSet(slot, NO_ESTIMATE,
+              now + estimatedTimes[floor] * 1000L);
+        }
+      }
+    }
+  }
+
+  private static int slot(Elevator elevator, int floor, OrderType orderType) {
+    return orderType.ordinal() * (elevator.getTotalFloors() + 1) + floor;
+  }
+
+  /**
+   * Order times and estimated arrivals of one car, indexed by order type and floor.
+   */
+  private static class CarTimes {
+
+    private final AtomicLongArray orderTimes;
+    private final AtomicLongArray estimatedArrivals;
+    private final AtomicBoolean estimatesPending = new AtomicBoolean();
+
+    CarTimes(int slots) {
+      orderTimes = new AtomicLongArray(slots);
+      estimatedArrivals = new AtomicLongArray(slots);
+      clearOrderTimes();
+    }
+
+    void clearOrderTimes() {
+      for (int slot = 0; slot < orderTimes.length(); slot++) {
+        orderTimes.set(slot, NOT_WAITING);
+        estimatedArrivals.set(slot, NO_ESTIMATE);
+      }
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.example.elevator.panel;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorState;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encodes the status of cars for floor panels: car, state, floor, direction and estimated time to
+ * a floor, in compact JSON or a fixed binary record. Responses are written byte by byte into a
+ * buffer of their final size, so no strings are formatted on the way.
+ *
+ * <p>A binary record is {@link #RECORD_BYTES} long, big-endian:
+ * <pre>
+ *   0  car         unsigned byte
+ *   1  state       ElevatorState ordinal
+ *   2  direction   signed byte, 1 up, -1 down, 0 standing
+ *   3  reserved    0
+ *   4  floor       unsigned short
+ *   6  eta         unsigned short, seconds, {@link #UNKNOWN_ETA} if out of range
+ * </pre>
+ * A JSON record is {@code {"car":0,"state":"GOING_UP","floor":3,"direction":1,"eta":12}}, several
+ * records are a JSON array.
+ */
+public final class PanelEncoder {
+
+  public static final int RECORD_BYTES = 8;
+  public static final int UNKNOWN_ETA = 0xFFFF;
+
+  private static final byte[][] STATE_NAMES = Arrays.stream(ElevatorState.values())
+      .map(state -> state.name().getBytes(StandardCharsets.US_ASCII))
+      .toArray(byte[][]::new);
+  private static final byte[] CAR = ascii("{\"car\":");
+  private static final byte[] STATE = ascii(",\"state\":\"");
+  private static final byte[] FLOOR = ascii("\",\"floor\":");
+  private static final byte[] DIRECTION = ascii(",\"direction\":");
+  private static final byte[] ETA = ascii(",\"eta\":");
+  // Car, floor and eta are ints, direction is at most two characters
+  private static final int MAX_JSON_RECORD_BYTES = CAR.length + STATE.length + FLOOR.length
+      + DIRECTION.length + ETA.length + 3 * 11 + 2 + 1
+      + Arrays.stream(STATE_NAMES).mapToInt(name -> name.length).max().orElse(0);
+
+  // Scratch for JSON, whose length is only known once written; responses are copied out of it
+  private static final ThreadLocal<byte[]> JSON_BUFFER = ThreadLocal.withInitial(() -> new byte[0]);
+
+  private PanelEncoder() {
+  }
+
+  /**
+   * Returns the binary records of the given cars, each with its estimated time in seconds.
+   */
+  public static byte[] binary(Elevator[] cars, int[] etaSeconds) {
+    byte[] out = new byte[cars.length * RECORD_BYTES];
+    for (int i = 0; i < cars.length; i++) {
+      writeRecord(out, i * RECORD_BYTES, cars[i], etaSeconds[i]);
+    }
+    return out;
+  }
+
+  /**
+   * Returns the JSON record of one car, or a JSON array of the records of several cars.
+   */
+  public static byte[] json(Elevator[] cars, int[] etaSeconds, boolean array) {
+    byte[] out = jsonBuffer(cars.length * (MAX_JSON_RECORD_BYTES + 1) + 2);
+    int at = 0;
+    if (array) {
+      out[at++] = '[';
+    }
+    for (int i = 0; i < cars.length; i++) {
+      if (i > 0) {
+        out[at++] = ',';
+      }
+      at = writeJson(out, at, cars[i], etaSeconds[i]);
+    }
+    if (array) {
+      out[at++] = ']';
+    }
+    return Arrays.copyOf(out, at);
+  }
+
+  private static void writeRecord(byte[] out, int at, Elevator car, int etaSeconds) {
+    // Read once, the car moves on another thread
+    ElevatorState state = car.getState();
+    int floor = car.getCurrentFloor();
+    int eta = etaSeconds < 0 || etaSeconds >= UNKNOWN_ETA ? UNKNOWN_ETA : etaSeconds;
+    out[at] = (byte) car.getId();
+    out[at + 1] = (byte) state.ordinal();
+    out[at + 2] = (byte) direction(state);
+    out[at + 3] = 0;
+    out[at + 4] = (byte) (floor >>> 8);
+    out[at + 5] = (byte) floor;
+    out[at + 6] = (byte) (eta >>> 8);
+    out[at + 7] = (byte) eta;
+  }
+
+  private static int writeJson(byte[] out, int at, Elevator car, int etaSeconds) {
+    ElevatorState state = car.getState();
+    int floor = car.getCurrentFloor();
+    at = put(out, at, CAR);
+    at = putInt(out, at, car.getId());
+    at = put(out, at, STATE);
+    at = put(out, at, STATE_NAMES[state.ordinal()]);
+    at = put(out, at, FLOOR);
+    at = putInt(out, at, floor);
+    at = put(out, at, DIRECTION);
+    at = putInt(out, at, direction(state));
+    at = put(out, at, ETA);
+    at = putInt(out, at, etaSeconds);
+    out[at++] = '}';
+    return at;
+  }
+
+  private static int direction(ElevatorState state) {
+    if (ElevatorState.GOING_UP.equals(state)) {
+      return 1;
+    }
+    return ElevatorState.GOING_DOWN.equals(state) ? -1 : 0;
+  }
+
+  private static int put(byte[] out, int at, byte[] bytes) {
+    System.arraycopy(bytes, 0, out, at, bytes.length);
+    return at + bytes.length;
+  }
+
+  private static int putInt(byte[] out, int at, int value) {
+    long remaining = value;
+    if (remaining < 0) {
+      out[at++] = '-';
+      remaining = -remaining;
+    }
+    int digits = 1;
+    for (long bound = 10; bound <= remaining; bound *= 10) {
+      digits++;
+    }
+    for (int i = at + digits - 1; i >= at; i--) {
+      out[i] = (byte) ('0' + remaining % 10);
+      remaining /= 10;
+    }
+    return at + digits;
+  }
+
+  private static byte[] jsonBuffer(int size) {
+    byte[] buffer = JSON_BUFFER.get();
+    if (buffer.length < size) {
+      buffer = new byte[size];
+      JSON_BUFFER.set(buffer);
+    }
+    return buffer;
+  }
+
+  private static byte[] ascii(String text) {
+    return text.getBytes(StandardCharsets.US_ASCII);
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.elevator.parking;
+
+import java.util.Arrays;
+
+/**
+ * Hall calls per floor, both recent ones and those usually seen at this time of day.
+ *
+ * <p>Recent calls count with a weight halving every half-life. Calls are also counted in a slot
+ * of the day; when a slot is counted on a later day, the counts from earlier days are halved for
+ * each day in between, so the slot follows what happened on the last few days. The demand of a
+ * floor is the sum of both.
+ */
+public class CallHistory {
+
+  static final long DAY_MILLIS = 24 * 3_600_000L;
+
+  private final int totalFloors;
+  private final long slotMillis;
+  private final double halfLifeMillis;
+  private final double[][] slotCalls; // Per slot of the day and floor, guarded by this
+  private final long[] slotDays; // Day the slot was last counted on
+  private final double[] recentCalls;
+  private long recentMillis; // Time the recent calls were last decayed to
+
+  public CallHistory(int totalFloors, long slotMillis, long halfLifeMillis) {
+    if (slotMillis <= 0 || DAY_MILLIS % slotMillis != 0 || halfLifeMillis <= 0) {
+      throw new IllegalArgumentException("Slots must divide the day and half-life be positive");
+    }
+    int slots = (int) (DAY_MILLIS / slotMillis);
+    this.totalFloors = totalFloors;
+    this.slotMillis = slotMillis;
+    this.halfLifeMillis = halfLifeMillis;
+    this.slotCalls = new double[slots][totalFloors + 1];
+    this.slotDays = new long[slots];
+    this.recentCalls = new double[totalFloors + 1];
+  }
+
+  public synchronized void record(int floor, long timeMillis) {
+    if (floor < 1 || floor > totalFloors) {
+      return;
+    }
+    int slot = slot(timeMillis);
+    long day = Math.floorDiv(timeMillis, DAY_MILLIS);
+    if (day > slotDays[slot]) {
+      double decay = Math.pow(0.5, day - slotDays[slot]);
+      double[] calls = slotCalls[slot];
+      for (int i = 1; i < calls.length; i++) {
+        calls[i] *= decay;
+      }
+      slotDays[slot] = day;
+    }
+    slotCalls[slot][floor]++;
+    decayRecent(timeMillis);
+    recentCalls[floor]++;
+  }
+
+  /**
+   * Returns the demand of every floor at the given time, indexed by floor.
+   */
+  public synchronized double[] demand(long timeMillis) {
+    decayRecent(timeMillis);
+    double[] demand = Arrays.copyOf(recentCalls, recentCalls.length);
+    int slot = slot(timeMillis);
+    // Counts of the last day the slot was seen are used as they are, older ones fade
+    long daysSince = Math.floorDiv(timeMillis, DAY_MILLIS) - slotDays[slot];
+    double weight = Math.pow(0.5, Math.max(daysSince - 1, 0));
+    for (int floor = 1; floor < demand.length; floor++) {
+      demand[floor] += slotCalls[slot][floor] * weight;
+    }
+    return demand;
+  }
+
+  private void decayRecent(long timeMillis) {
+    if (timeMillis <= recentMillis) {
+      return;
+    }
+    double decay = Math.pow(0.5, (timeMillis - recentMillis) / halfLifeMillis);
+    for (int floor = 1; floor < recentCalls.length; floor++) {
+      recentCalls[floor] *= decay;
+    }
+    recentMillis = timeMillis;
+  }
+
+  private int slot(long timeMillis) {
+    return (int) (Math.floorMod(timeMillis, DAY_MILLIS) / slotMillis);
+  }
+}
@@ -0,0 +1,122 @@
+package com.example.elevator.parking;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorListener;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.FloorOrderIndex;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.time.TimeSource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Parks idle cars on the floors with the most predicted hall calls, one car per floor. The
+ * prediction is the {@link CallHistory} of the bank, fed by the hall calls its cars are given.
+ *
+ * <p>The cars of the bank are shared out over the floors in proportion to their demand, so a
+ * busy lobby may get several. A car stays where it is while its floor has room for it, otherwise
+ * it goes to the busiest floor with fewer cars waiting or parking on it than its share, the
+ * nearest on equal demand. Floors with less demand than one fresh call get no cars. A parking
+ * car given a hall call drops its parking floor and serves the call.
+ */
+public class DemandParkingPolicy implements ParkingPolicy, ElevatorListener {
+
+  static final double MIN_DEMAND = 1;
+
+  private static final int NONE = FloorOrderIndex.NONE;
+
+  private final List<Elevator> cars;
+  private final TimeSource timeSource;
+  private final CallHistory history;
+  private final AtomicIntegerArray targets; // Floor each car is parking on, or NONE
+
+  public DemandParkingPolicy(ElevatorBank bank, TimeSource timeSource, CallHistory history) {
+    this.cars = bank.getElevators();
+    this.timeSource = timeSource;
+    this.history = history;
+    this.targets = new AtomicIntegerArray(cars.size());
+    for (Elevator car : cars) {
+      targets.set(car.getId(), NONE);
+      car.addListener(this);
+    }
+  }
+
+  @Override
+  public void onOrderAdded(Elevator elevator, int floor, OrderType orderType) {
+    if (!OrderType.NEUTRAL.equals(orderType)) {
+      history.record(floor, timeSource.currentTimeMillis());
+      // The car serves the call instead of finishing the trip to its parking floor
+      int target = targets.getAndSet(elevator.getId(), NONE);
+      if (target != NONE) {
+        elevator.removeOrder(target, OrderType.NEUTRAL);
+      }
+    }
+  }
+
+  @Override
+  public void onDoorOpened(Elevator elevator, int floor) {
+    targets.compareAndSet(elevator.getId(), floor, NONE);
+  }
+
+  @Override
+  public int parkingFloor(Elevator car) {
+    double[] demand = history.demand(timeSource.currentTimeMillis());
+    int[] quota = quota(demand);
+    int current = car.getCurrentFloor();
+    int[] held = new int[demand.length];
+    for (Elevator other : cars) {
+      if (other == car) {
+        continue;
+      }
+      int target = targets.get(other.getId());
+      if (target != NONE) {
+        held[target]++;
+      } else if (ElevatorState.IDLE.equals(other.getState()) && other.getOrders().isEmpty()
+          && (other.getCurrentFloor() != current || other.getId() < car.getId())) {
+        // Of cars waiting on the same floor, those with lower ids keep it
+        held[other.getCurrentFloor()]++;
+      }
+    }
+    if (held[current] < quota[current]) {
+      return NONE;
+    }
+
+    int best = NONE;
+    for (int floor = 1; floor < demand.length; floor++) {
+      if (held[floor] >= quota[floor]) {
+        continue;
+      }
+      if (best == NONE || demand[floor] > demand[best]
+          || demand[floor] == demand[best]
+          && Math.abs(floor - current) < Math.abs(best - current)) {
+        best = floor;
+      }
+    }
+    if (best != NONE) {
+      targets.set(car.getId(), best);
+    }
+    return best;
+  }
+
+  /**
+   * Shares the cars out over the floors in proportion to their demand, by highest averages.
+   */
+  private int[] quota(double[] demand) {
+    int[] quota = new int[demand.length];
+    for (int car = 0; car < cars.size(); car++) {
+      int busiest = NONE;
+      for (int floor = 1; floor < demand.length; floor++) {
+        if (demand[floor] >= MIN_DEMAND && (busiest == NONE
+            || demand[floor] / (quota[floor] + 1) > demand[busiest] / (quota[busiest] + 1))) {
+          busiest = floor;
+        }
+      }
+      if (busiest == NONE) {
+        break;
+      }
+      quota[busiest]++;
+    }
+    return quota;
+  }
+}
@@ -0,0 +1,111 @@
+package com.example.elevator.parking;
+
+import com.example.elevator.building.BuildingListener;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorListener;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.time.TimeSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves cars that stood idle for a while to where the next calls are expected, using a
+ * {@link DemandParkingPolicy} per building. A car is checked when it becomes idle without orders
+ * and again at startup; the move itself is an order, so the scheduler drives it like any other.
+ *
+ * <p>Off unless {@code elevator.parking.enabled} is set: parking moves are car calls, so they
+ * also show up in order metrics, the journal and the audit log.
+ */
+@Component
+@ConditionalOnProperty(name = "elevator.parking.enabled", havingValue = "true")
+@Slf4j
+public class IdleCarParking implements ElevatorListener, BuildingListener {
+
+  private static final long SLOT_MILLIS = 15 * 60_000L;
+
+  private final ElevatorBank bank;
+  private final TimeSource timeSource;
+  private final long idleMillis;
+  private final long halfLifeMillis;
+  private final Map<Elevator, ParkingPolicy> policies = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+  @Autowired
+  public IdleCarParking(ElevatorBank bank, TimeSource timeSource,
+      @Value("${elevator.parking.idleSeconds:30}") long idleSeconds,
+      @Value("${elevator.parking.halfLifeSeconds:300}") long halfLifeSeconds) {
+    this.bank = bank;
+    this.timeSource = timeSource;
+    this.idleMillis = TimeUnit.SECONDS.toMillis(idleSeconds);
+    this.halfLifeMillis = TimeUnit.SECONDS.toMillis(halfLifeSeconds);
+  }
+
+  @PostConstruct
+  public void start() {
+    track(bank);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Override
+  public void onBuildingAdded(String buildingId, ElevatorBank bank) {
+    track(bank);
+  }
+
+  @Override
+  public void onBuildingRemoved(String buildingId, ElevatorBank bank) {
+    for (Elevator elevator : bank.getElevators()) {
+      policies.remove(elevator);
+    }
+  }
+
+  @Override
+  public void onStateChanged(Elevator elevator, ElevatorState state) {
+    if (ElevatorState.IDLE.equals(state) && elevator.getOrders().isEmpty()) {
+      scheduleCheck(elevator);
+    }
+  }
+
+  private void track(ElevatorBank bank) {
+    ParkingPolicy policy = new DemandParkingPolicy(bank, timeSource,
+        new CallHistory(bank.getTotalFloors(), SLOT_MILLIS, halfLifeMillis));
+    for (Elevator elevator : bank.getElevators()) {
+      policies.put(elevator, policy);
+      elevator.addListener(this);
+      scheduleCheck(elevator);
+    }
+  }
+
+  private void scheduleCheck(Elevator elevator) {
+    executor.schedule(() -> park(elevator), idleMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private void park(Elevator elevator) {
+    ParkingPolicy policy = policies.get(elevator);
+    if (policy == null) {
+      return;
+    }
+    try {
+      if (policy.park(elevator)) {
+        log.debug("Parking elevator {} on floor {}", elevator.getId(),
+            elevator.getHighestOrderedStop());
+      }
+    } catch (RuntimeException e) {
+      log.error("Failed to park elevator {}", elevator.getId(), e);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.elevator.parking;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.FloorOrderIndex;
+import com.example.elevator.elevator.OrderType;
+
+/**
+ * Decides where a car with nothing to do should wait for the next call.
+ */
+public interface ParkingPolicy {
+
+  /**
+   * Returns the floor the idle car should move to, or {@link FloorOrderIndex#NONE} to leave it
+   * where it is.
+   */
+  int parkingFloor(Elevator car);
+
+  /**
+   * Sends the car to its parking floor if it is idle without orders. The parking floor is given
+   * as a car call, so the door opens when the car arrives. Returns true if the car was sent.
+   */
+  default boolean park(Elevator car) {
+    if (!ElevatorState.IDLE.equals(car.getState()) || !car.getOrders().isEmpty()) {
+      return false;
+    }
+    int floor = parkingFloor(car);
+    if (floor == FloorOrderIndex.NONE || floor == car.getCurrentFloor()) {
+      return false;
+    }
+    car.addOrder(floor, OrderType.NEUTRAL);
+    return true;
+  }
+}
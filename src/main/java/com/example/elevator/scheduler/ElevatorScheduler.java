@@ -1,24 +1,168 @@
 package com.example.elevator.scheduler;
 
+import com.example.elevator.building.BuildingListener;
 import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorListener;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.OrderType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Drives cars on a small shared thread pool. A car is only scheduled while it has work: an order
+ * wakes it, each step schedules the next one after the time the car is busy, and the car goes
+ * back to sleep when a step has nothing to do. No thread blocks for travel or door times.
+ *
+ * <p>Cars of buildings added at runtime are driven by the same pool. The emergency break cancels
+ * the next step of a car, and releasing it wakes a car that was given orders meanwhile.
+ */
 @Component
-public class ElevatorScheduler {
+@Slf4j
+public class ElevatorScheduler implements ElevatorListener, BuildingListener {
 
-  private final Elevator elevator;
+  private final ElevatorBank bank;
+  private final ScheduledExecutorService executor;
+  private final Map<Elevator, CarDriver> drivers = new ConcurrentHashMap<>();
+  private final Timer stepTimer;
+  private final Timer lagTimer;
 
   @Autowired
-  public ElevatorScheduler(Elevator elevator) {
-    this.elevator = elevator;
+  public ElevatorScheduler(ElevatorBank bank,
+      @Value("${elevator.scheduler.threads:2}") int threads, MeterRegistry registry) {
+    this.bank = bank;
+    this.executor = Executors.newScheduledThreadPool(threads);
+    this.stepTimer = Timer.builder("elevator.scheduler.step")
+        .description("Time spent computing one step of a car")
+        .register(registry);
+    this.lagTimer = Timer.builder("elevator.scheduler.lag")
+        .description("Delay between when a step was due and when it ran")
+        .register(registry);
   }
 
-  @Scheduled(fixedDelay = 100)
-  public void scheduleElevator() throws InterruptedException {
-    if (elevator.shouldMove()) {
-      elevator.move();
+  @PostConstruct
+  public void start() {
+    drive(bank);
+  }
+
+  @Override
+  public void onBuildingAdded(String buildingId, ElevatorBank bank) {
+    drive(bank);
+  }
+
+  @Override
+  public void onBuildingRemoved(String buildingId, ElevatorBank bank) {
+    for (Elevator elevator : bank.getElevators()) {
+      drivers.remove(elevator);
+    }
+  }
+
+  private void drive(ElevatorBank bank) {
+    for (Elevator elevator : bank.getElevators()) {
+      drivers.put(elevator, new CarDriver(elevator));
+      elevator.addListener(this);
+      wake(elevator);
+    }
+  }
+
+  @Override
+  public void onOrderAdded(Elevator elevator, int floor, OrderType orderType) {
+    wake(elevator);
+  }
+
+  @Override
+  public void onStateChanged(Elevator elevator, ElevatorState state) {
+    if (ElevatorState.EMERGENCY_BREAK.equals(state)) {
+      CarDriver driver = drivers.get(elevator);
+      if (driver != null) {
+        driver.halt();
+      }
+    } else if (ElevatorState.IDLE.equals(state) && elevator.hasPendingWork()) {
+      // Orders given during an emergency break are served once it is released
+      wake(elevator);
+    }
+  }
+
+  public void wake(Elevator elevator) {
+    CarDriver driver = drivers.get(elevator);
+    if (driver != null && driver.scheduled.compareAndSet(false, true)) {
+      driver.dueNanos = System.nanoTime();
+      executor.execute(driver);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private class CarDriver implements Runnable {
+
+    private final Elevator elevator;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile long dueNanos;
+    private volatile ScheduledFuture<?> next;
+
+    CarDriver(Elevator elevator) {
+      this.elevator = elevator;
+    }
+
+    /**
+     * Drops the next step. A step already running finds the break applied and does nothing.
+     */
+    void halt() {
+      ScheduledFuture<?> step = next;
+      if (step != null && step.cancel(false)) {
+        next = null;
+        scheduled.set(false);
+      }
+    }
+
+    @Override
+    public void run() {
+      if (drivers.get(elevator) != this) {
+        // The building was removed
+        return;
+      }
+      long startNanos = System.nanoTime();
+      lagTimer.record(startNanos - dueNanos, TimeUnit.NANOSECONDS);
+      long busyMillis;
+      try {
+        busyMillis = elevator.step();
+      } catch (RuntimeException e) {
+        // Retried on the next order rather than spinning on a broken car
+        log.error("Elevator {} failed to move", elevator.getId(), e);
+        scheduled.set(false);
+        return;
+      }
+
+      long endNanos = System.nanoTime();
+      stepTimer.record(endNanos - startNanos, TimeUnit.NANOSECONDS);
+
+      if (busyMillis != Elevator.NO_ACTION) {
+        dueNanos = endNanos + TimeUnit.MILLISECONDS.toNanos(busyMillis);
+        next = executor.schedule(this, busyMillis, TimeUnit.MILLISECONDS);
+        return;
+      }
+      next = null;
+      scheduled.set(false);
+      // An order added after the step but before the flag was cleared did not wake the car
+      if (elevator.hasPendingWork()) {
+        wake(elevator);
+      }
     }
   }
 }
@@ -1,10 +1,23 @@
 package com.example.elevator.service;
 
+import com.example.elevator.demand.CallStatistics;
+import com.example.elevator.dispatch.DestinationDispatcher;
+import com.example.elevator.dto.DemandHeatmap;
+import com.example.elevator.dto.OrderRequest;
+import com.example.elevator.dto.OrderResponse;
 import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
 import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.FloorOrderIndex;
 import com.example.elevator.elevator.OrderType;
+import com.example.elevator.exception.InvalidDemandQueryException;
 import com.example.elevator.exception.InvalidFloorException;
-import java.util.Set;
+import com.example.elevator.exception.InvalidLoadException;
+import com.example.elevator.exception.InvalidOrderException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -13,108 +26,205 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class ElevatorService {
 
-  private final Elevator elevator;
+  private static final int MAX_BATCH_SIZE = 1000;
+
+  private final ElevatorBank bank;
+  private final EstimatedTimeCalculator estimatedTimeCalculator;
+  private final DestinationDispatcher destinationDispatcher;
 
   @Autowired
-  public ElevatorService(Elevator elevator) {
-    this.elevator = elevator;
+  public ElevatorService(ElevatorBank bank, EstimatedTimeCalculator estimatedTimeCalculator) {
+    this.bank = bank;
+    this.estimatedTimeCalculator = estimatedTimeCalculator;
+    this.destinationDispatcher = new DestinationDispatcher(bank, estimatedTimeCalculator);
+  }
+
+  /**
+   * Adds a hall call or car call and returns the car serving it. Hall calls, and car calls placed
+   * without naming a car, are assigned by the bank's dispatch strategy.
+   */
+  public Elevator addDestinationFloor(int floor, OrderType orderType) {
+    validateFloor(floor);
+    return addOrder(bank.assign(floor, orderType), floor, orderType);
   }
 
-  public void addDestinationFloor(int floor, OrderType orderType) {
+  public Elevator addDestinationFloor(int floor, OrderType orderType, int elevatorId) {
     validateFloor(floor);
+    return addOrder(bank.getElevator(elevatorId), floor, orderType);
+  }
+
+  /**
+   * Adds a destination call of a passenger on the origin floor and returns the car assigned to
+   * it. The car is chosen by the {@link DestinationDispatcher}, which groups passengers with
+   * common destinations, and goes to the destination once it picked the passenger up.
+   */
+  public Elevator addDestinationCall(int origin, int destination) {
+    validateFloor(origin);
+    validateFloor(destination);
+    if (origin == destination) {
+      throw new InvalidOrderException("Destination must differ from origin");
+    }
+    Elevator elevator = destinationDispatcher.assign(origin, destination);
+    record(origin, destination > origin ? OrderType.UP : OrderType.DOWN);
+    record(destination, OrderType.NEUTRAL);
+    return elevator;
+  }
 
-    log.info("Adding order: floor {}, orderType {}", floor, orderType);
-
-    switch (orderType) {
-      case NEUTRAL:
-        elevator.getOrdersNeutral().add(floor);
-        break;
-      case UP:
-        elevator.getOrdersUp().add(floor);
-        break;
-      case DOWN:
-        elevator.getOrdersDown().add(floor);
-        break;
-      default:
-        break;
+  private Elevator addOrder(Elevator elevator, int floor, OrderType orderType) {
+    elevator.addOrder(floor, orderType);
+    record(floor, orderType);
+    return elevator;
+  }
+
+  private void record(int floor, OrderType orderType) {
+    CallStatistics statistics = bank.getCallStatistics();
+    if (statistics != null) {
+      statistics.record(floor, orderType);
     }
   }
 
+  /**
+   * Adds a batch of orders. The whole batch is validated before any order is added, so an invalid
+   * batch adds nothing. Hall calls are assigned knowing the orders the batch gave each car before,
+   * then the orders of each car are added in one go, published together per order type. Returns
+   * the assignment and estimated time of each order, in request order.
+   */
+  public List<OrderResponse> addDestinationFloors(List<OrderRequest> requests) {
+    if (requests.size() > MAX_BATCH_SIZE) {
+      throw new InvalidOrderException("At most " + MAX_BATCH_SIZE + " orders per batch");
+    }
+    for (OrderRequest request : requests) {
+      if (request == null || request.getOrderType() == null) {
+        throw new InvalidOrderException("Order type is required");
+      }
+      validateFloor(request.getFloor());
+      if (request.getElevator() != null) {
+        bank.getElevator(request.getElevator());
+      }
+    }
+
+    List<Elevator> assigned = new ArrayList<>(requests.size());
+    FloorOrderIndex[] batches = new FloorOrderIndex[bank.getElevators().size()];
+    for (OrderRequest request : requests) {
+      Elevator elevator = request.getElevator() == null
+          ? bank.assign(request.getFloor(), request.getOrderType(), batches)
+          : bank.getElevator(request.getElevator());
+      if (batches[elevator.getId()] == null) {
+        batches[elevator.getId()] = new FloorOrderIndex(bank.getTotalFloors());
+      }
+      batches[elevator.getId()].add(request.getFloor(), request.getOrderType());
+      assigned.add(elevator);
+      record(request.getFloor(), request.getOrderType());
+    }
+
+    log.debug("Adding batch of {} orders", requests.size());
+    for (Elevator elevator : bank.getElevators()) {
+      if (batches[elevator.getId()] != null) {
+        elevator.addOrders(batches[elevator.getId()]);
+      }
+    }
+
+    List<OrderResponse> responses = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      OrderRequest request = requests.get(i);
+      Elevator elevator = assigned.get(i);
+      responses.add(new OrderResponse(request.getOrderType(), request.getFloor(),
+          elevator.getId(),
+          estimatedTimeCalculator.getEstimatedTimeToFloor(elevator, request.getFloor())));
+    }
+    return responses;
+  }
+
+  /**
+   * Applies the emergency break to every car. Each car is stopped as soon as a step it may be
+   * taking returns, and listeners are told only after all cars are halted.
+   */
   public void doEmergencyBreak() {
-    elevator.setState(ElevatorState.EMERGENCY_BREAK);
-    elevator.getOrdersNeutral().clear();
-    elevator.getOrdersUp().clear();
-    elevator.getOrdersDown().clear();
-    log.info("Emergency break triggered");
+    long startNanos = System.nanoTime();
+    bank.emergencyBreak();
+    log.info("Emergency break applied to {} cars in {} us", bank.getElevators().size(),
+        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
   }
 
-  public ElevatorState getElevatorState() {
-    return elevator.getState();
+  /**
+   * Releases the emergency break of every car. Returns the number of cars released.
+   */
+  public int resume() {
+    int released = 0;
+    for (Elevator elevator : bank.getElevators()) {
+      if (elevator.resume()) {
+        released++;
+      }
+    }
+    log.info("Emergency break released on {} cars", released);
+    return released;
+  }
+
+  /**
+   * Records passengers leaving and entering a car, as counted at its door. Returns the passengers
+   * now on board.
+   */
+  public int transferPassengers(int elevatorId, int alighting, int boarding) {
+    if (alighting < 0 || boarding < 0) {
+      throw new InvalidLoadException("Passenger counts must not be negative");
+    }
+    return bank.getElevator(elevatorId).transfer(alighting, boarding);
   }
 
+  public ElevatorState getElevatorState(int elevatorId) {
+    return bank.getElevator(elevatorId).getState();
+  }
+
+  /**
+   * Returns the estimated time until the best placed car reaches the given floor.
+   */
   public int getEstimatedTimeToFloor(int targetFloor) {
     validateFloor(targetFloor);
 
-    int currentFloor = elevator.getCurrentFloor();
-
-    if (currentFloor == targetFloor) {
-      return 0;
+    int best = Integer.MAX_VALUE;
+    for (Elevator elevator : bank.getElevators()) {
+      best = Math.min(best, estimatedTimeCalculator.getEstimatedTimeToFloor(elevator, targetFloor));
     }
+    return best;
+  }
 
-    /* Some stops may be counted twice if there are orders of different types to the same floor,
-    which will give a pessimistic estimate, but this is ok as boarding passengers will likely place
-    new orders which will add new stops. */
-    int floorsToMove;
-    int stops;
-
-    switch (elevator.getState()) {
-      case GOING_DOWN:
-        if (targetFloor < currentFloor) {
-          floorsToMove = Math.abs(currentFloor - targetFloor);
-          stops = findStopsInRange(elevator.getOrdersNeutral(), targetFloor, currentFloor)
-              + findStopsInRange(elevator.getOrdersDown(), targetFloor, currentFloor);
-        } else {
-          int lowestOrderedStop = elevator.getLowestOrderedStop();
-          floorsToMove = Math.abs(currentFloor - lowestOrderedStop)
-              + Math.abs(targetFloor - lowestOrderedStop);
-          stops = findStopsInRange(elevator.getOrdersNeutral(), lowestOrderedStop, targetFloor)
-              + findStopsInRange(elevator.getOrdersUp(), lowestOrderedStop, targetFloor)
-              + findStopsInRange(elevator.getOrdersDown(), lowestOrderedStop, currentFloor);
-        }
-        break;
-      case GOING_UP:
-        if (targetFloor > currentFloor) {
-          floorsToMove = Math.abs(targetFloor - currentFloor);
-          stops = findStopsInRange(elevator.getOrdersNeutral(), currentFloor, targetFloor)
-              + findStopsInRange(elevator.getOrdersUp(), currentFloor, targetFloor);
-        } else {
-          int highestOrderedStop = elevator.getHighestOrderedStop();
-          floorsToMove = Math.abs(highestOrderedStop - currentFloor)
-              + Math.abs(highestOrderedStop - targetFloor);
-          stops = findStopsInRange(elevator.getOrdersNeutral(), targetFloor, highestOrderedStop)
-              + findStopsInRange(elevator.getOrdersUp(), currentFloor, highestOrderedStop)
-              + findStopsInRange(elevator.getOrdersDown(), targetFloor, highestOrderedStop);
-        }
-        break;
-      default: // IDLE or EMERGENCY_BREAK
-        floorsToMove = Math.abs(targetFloor - currentFloor);
-        stops = 0;
-        break;
+  /**
+   * Returns the estimated time until the best placed car reaches each floor, starting with the
+   * first floor.
+   */
+  public int[] getEstimatedTimes() {
+    int[] best = new int[bank.getTotalFloors()];
+    Arrays.fill(best, Integer.MAX_VALUE);
+    for (Elevator elevator : bank.getElevators()) {
+      int[] estimatedTimes = estimatedTimeCalculator.getEstimatedTimes(elevator);
+      for (int floor = 1; floor <= best.length; floor++) {
+        best[floor - 1] = Math.min(best[floor - 1], estimatedTimes[floor]);
+      }
     }
+    return best;
+  }
 
-    return floorsToMove * elevator.getFloorTimeInSeconds()
-        + stops * elevator.getDoorOpeningTimeInSeconds();
+  public int getEstimatedTimeToFloor(int targetFloor, int elevatorId) {
+    validateFloor(targetFloor);
+    return estimatedTimeCalculator.getEstimatedTimeToFloor(bank.getElevator(elevatorId),
+        targetFloor);
   }
 
-  private int findStopsInRange(Set<Integer> stops, int lowerFloor, int upperFloor) {
-    return (int) stops.stream()
-        .filter(stop -> stop >= lowerFloor && stop <= upperFloor)
-        .count();
+  /**
+   * Returns the orders placed per floor over the last given minutes, summed into buckets of the
+   * given length. Only orders of the given type are counted, all orders if it is null.
+   */
+  public DemandHeatmap getDemandHeatmap(int minutes, int bucketMinutes, OrderType orderType) {
+    CallStatistics statistics = bank.getCallStatistics();
+    if (statistics == null) {
+      throw new InvalidDemandQueryException("Call statistics are disabled");
+    }
+    return statistics.heatmap(minutes, bucketMinutes, orderType);
   }
 
   private void validateFloor(int floor) {
-    if (floor <= 0 || floor > elevator.getTotalFloors()) {
-      throw new InvalidFloorException("Floor must be between 1 and " + elevator.getTotalFloors());
+    if (floor <= 0 || floor > bank.getTotalFloors()) {
+      throw new InvalidFloorException("Floor must be between 1 and " + bank.getTotalFloors());
     }
   }
 }
@@ -0,0 +1,104 @@
+package com.example.elevator.service;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.EstimatedTimeTable;
+import com.example.elevator.elevator.FloorOrderIndex;
+import com.example.elevator.elevator.OrderType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estimates how long a car needs to reach a floor. Estimates for all floors of a car are
+ * computed together and cached in the car's {@link EstimatedTimeTable} until its orders, floor or
+ * state change, so repeated reads cost an array lookup.
+ */
+@Component
+public class EstimatedTimeCalculator {
+
+  public int getEstimatedTimeToFloor(Elevator elevator, int targetFloor) {
+    return getEstimatedTimes(elevator)[targetFloor];
+  }
+
+  /**
+   * Returns the estimated times in seconds indexed by floor. The array is shared and must not be
+   * modified.
+   */
+  public int[] getEstimatedTimes(Elevator elevator) {
+    EstimatedTimeTable table = elevator.getEstimatedTimes();
+    long version = elevator.getVersion();
+    int[] estimatedTimes = table.get(version);
+    if (estimatedTimes == null) {
+      estimatedTimes = computeEstimatedTimes(elevator);
+      table.update(version, estimatedTimes);
+    }
+    return estimatedTimes;
+  }
+
+  private int[] computeEstimatedTimes(Elevator elevator) {
+    int currentFloor = elevator.getCurrentFloor();
+    ElevatorState state = elevator.getState();
+    int highestOrderedStop = elevator.getHighestOrderedStop();
+    int lowestOrderedStop = elevator.getLowestOrderedStop();
+
+    // Stops last the door time plus the time passengers take to get on and off
+    int carCalls = elevator.getOrders().countInRange(OrderType.NEUTRAL, 1,
+        elevator.getTotalFloors());
+    int dwellSeconds = (int) Math.round(elevator.getLoadModel().expectedDwellMillis(
+        elevator.getDoorOpeningTimeInSeconds() * 1000L, elevator.getLoad(), carCalls) / 1000.0);
+
+    int[] estimatedTimes = new int[elevator.getTotalFloors() + 1];
+    for (int floor = 1; floor <= elevator.getTotalFloors(); floor++) {
+      int stops = countStops(elevator.getOrders(), state, currentFloor, floor, highestOrderedStop,
+          lowestOrderedStop);
+      int floorsToMove = countFloorsToMove(state, currentFloor, floor, highestOrderedStop,
+          lowestOrderedStop);
+      estimatedTimes[floor] = floorsToMove * elevator.getFloorTimeInSeconds()
+          + stops * dwellSeconds;
+    }
+    return estimatedTimes;
+  }
+
+  private int countFloorsToMove(ElevatorState state, int currentFloor, int targetFloor,
+      int highestOrderedStop, int lowestOrderedStop) {
+    if (ElevatorState.GOING_DOWN.equals(state) && targetFloor > currentFloor) {
+      return Math.abs(currentFloor - lowestOrderedStop)
+          + Math.abs(targetFloor - lowestOrderedStop);
+    }
+    if (ElevatorState.GOING_UP.equals(state) && targetFloor < currentFloor) {
+      return Math.abs(highestOrderedStop - currentFloor)
+          + Math.abs(highestOrderedStop - targetFloor);
+    }
+    return Math.abs(targetFloor - currentFloor);
+  }
+
+  /* Some stops may be counted twice if there are orders of different types to the same floor,
+  which will give a pessimistic estimate, but this is ok as boarding passengers will likely place
+  new orders which will add new stops. */
+  private int countStops(FloorOrderIndex orders, ElevatorState state, int currentFloor,
+      int targetFloor, int highestOrderedStop, int lowestOrderedStop) {
+    if (currentFloor == targetFloor) {
+      return 0;
+    }
+
+    switch (state) {
+      case GOING_DOWN:
+        if (targetFloor < currentFloor) {
+          return orders.countInRange(OrderType.NEUTRAL, targetFloor, currentFloor)
+              + orders.countInRange(OrderType.DOWN, targetFloor, currentFloor);
+        }
+        return orders.countInRange(OrderType.NEUTRAL, lowestOrderedStop, targetFloor)
+            + orders.countInRange(OrderType.UP, lowestOrderedStop, targetFloor)
+            + orders.countInRange(OrderType.DOWN, lowestOrderedStop, currentFloor);
+      case GOING_UP:
+        if (targetFloor > currentFloor) {
+          return orders.countInRange(OrderType.NEUTRAL, currentFloor, targetFloor)
+              + orders.countInRange(OrderType.UP, currentFloor, targetFloor);
+        }
+        return orders.countInRange(OrderType.NEUTRAL, targetFloor, highestOrderedStop)
+            + orders.countInRange(OrderType.UP, currentFloor, highestOrderedStop)
+            + orders.countInRange(OrderType.DOWN, targetFloor, highestOrderedStop);
+      default: // IDLE or EMERGENCY_BREAK
+        return 0;
+    }
+  }
+}
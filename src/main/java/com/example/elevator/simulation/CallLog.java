@@ -0,0 +1,69 @@
+package com.example.elevator.simulation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes recorded passenger calls as CSV lines of arrival time in milliseconds, origin
+ * floor and destination floor. A header line, blank lines and lines starting with {@code #} are
+ * skipped.
+ */
+public final class CallLog {
+
+  public static final String HEADER = "timeMillis,origin,destination";
+
+  private CallLog() {
+  }
+
+  public static List<PassengerCall> read(Reader reader) {
+    List<PassengerCall> calls = new ArrayList<>();
+    BufferedReader lines = new BufferedReader(reader);
+    try {
+      String line;
+      int lineNumber = 0;
+      while ((line = lines.readLine()) != null) {
+        lineNumber++;
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#") || line.equals(HEADER)) {
+          continue;
+        }
+        calls.add(parse(line, lineNumber));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return calls;
+  }
+
+  public static void write(List<PassengerCall> calls, Writer writer) {
+    try {
+      writer.write(HEADER);
+      writer.write('\n');
+      for (PassengerCall call : calls) {
+        writer.write(call.getTimeMillis() + "," + call.getOrigin() + ","
+            + call.getDestination() + "\n");
+      }
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static PassengerCall parse(String line, int lineNumber) {
+    String[] fields = line.split(",");
+    if (fields.length != 3) {
+      throw new IllegalArgumentException("Line " + lineNumber + ": expected " + HEADER);
+    }
+    try {
+      return new PassengerCall(Long.parseLong(fields[0].trim()), Integer.parseInt(fields[1].trim()),
+          Integer.parseInt(fields[2].trim()));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.example.elevator.simulation;
+
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.service.ElevatorService;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.VirtualTimeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates building configurations by replaying many simulated hours of generated traffic.
+ *
+ * <p>Every run builds its own bank, clock and simulation, so runs share nothing and are spread
+ * over the cores of a {@link ForkJoinPool}. Run {@code i} of every scenario uses the workload
+ * seed {@code seed + i}, so scenarios are compared on the same random passengers wherever their
+ * floors allow it, and a sweep gives the same reports however its runs are scheduled.
+ */
+public class MonteCarloEvaluator {
+
+  private final ForkJoinPool pool;
+  private final long durationMillis;
+
+  /**
+   * Creates an evaluator running on the common pool, generating traffic for the given duration
+   * per run.
+   */
+  public MonteCarloEvaluator(long durationMillis) {
+    this(ForkJoinPool.commonPool(), durationMillis);
+  }
+
+  public MonteCarloEvaluator(ForkJoinPool pool, long durationMillis) {
+    if (durationMillis <= 0) {
+      throw new IllegalArgumentException("Duration must be positive");
+    }
+    this.pool = pool;
+    this.durationMillis = durationMillis;
+  }
+
+  /**
+   * Runs every scenario the given number of times and returns a report per scenario, in scenario
+   * order.
+   */
+  public List<ScenarioReport> evaluate(List<SimulationScenario> scenarios, int runs, long seed) {
+    if (runs <= 0) {
+      throw new IllegalArgumentException("At least one run per scenario is needed");
+    }
+    // A parallel stream started from a task of the pool runs on that pool
+    List<Run> results = pool.submit(() -> IntStream.range(0, scenarios.size() * runs)
+        .parallel()
+        .mapToObj(task -> run(scenarios.get(task / runs), seed + task % runs))
+        .collect(Collectors.toList()))
+        .join();
+
+    List<ScenarioReport> reports = new ArrayList<>(scenarios.size());
+    for (int i = 0; i < scenarios.size(); i++) {
+      reports.add(aggregate(scenarios.get(i), results.subList(i * runs, (i + 1) * runs)));
+    }
+    return reports;
+  }
+
+  private Run run(SimulationScenario scenario, long seed) {
+    VirtualTimeSource clock = new VirtualTimeSource();
+    EstimatedTimeCalculator calculator = new EstimatedTimeCalculator();
+    ElevatorBank bank = new ElevatorBank(scenario.getCars(), scenario.getTotalFloors(),
+        scenario.getFloorTimeInSeconds(), scenario.getDoorOpeningTimeInSeconds(),
+        scenario.getDispatchStrategy().create(calculator), clock);
+    bank.setLoadModel(scenario.getLoadModel());
+    Simulation simulation = new Simulation(bank, clock);
+    TrafficReplay replay = new TrafficReplay(simulation, new ElevatorService(bank, calculator),
+        null, 0, scenario.isDestinationDispatch());
+    List<PassengerCall> calls = new WorkloadGenerator(scenario.getPattern(),
+        scenario.getPassengersPerHour(), scenario.getTotalFloors(), seed)
+        .generate(0, durationMillis);
+    TrafficReport report = replay.run(calls);
+    return new Run(report, replay.getWaitMillis());
+  }
+
+  private static ScenarioReport aggregate(SimulationScenario scenario, List<Run> runs) {
+    int passengers = 0;
+    int delivered = 0;
+    double tripSeconds = 0;
+    double passengersPerHour = 0;
+    double energyKilowattHours = 0;
+    double[] averageWaits = new double[runs.size()];
+    long[] waits = new long[runs.stream().mapToInt(run -> run.waitMillis.length).sum()];
+    int waitCount = 0;
+    for (int i = 0; i < runs.size(); i++) {
+      Run run = runs.get(i);
+      passengers += run.report.getPassengers();
+      delivered += run.report.getDelivered();
+      tripSeconds += run.report.getAverageTripSeconds() * run.report.getDelivered();
+      passengersPerHour += run.report.getPassengersPerHour();
+      energyKilowattHours += run.report.getEnergyKilowattHours();
+      averageWaits[i] = run.report.getAverageWaitSeconds();
+      System.arraycopy(run.waitMillis, 0, waits, waitCount, run.waitMillis.length);
+      waitCount += run.waitMillis.length;
+    }
+    Arrays.sort(waits);
+
+    return new ScenarioReport(scenario, runs.size(), passengers, delivered,
+        TrafficReplay.averageSeconds(waits), standardError(averageWaits),
+        TrafficReplay.percentileSeconds(waits, 50), TrafficReplay.percentileSeconds(waits, 90),
+        TrafficReplay.percentileSeconds(waits, 99),
+        delivered == 0 ? 0 : tripSeconds / delivered, passengersPerHour / runs.size(),
+        energyKilowattHours / runs.size());
+  }
+
+  private static double standardError(double[] values) {
+    if (values.length < 2) {
+      return 0;
+    }
+    double mean = Arrays.stream(values).average().orElse(0);
+    double squares = Arrays.stream(values).map(value -> (value - mean) * (value - mean)).sum();
+    return Math.sqrt(squares / (values.length - 1) / values.length);
+  }
+
+  private static class Run {
+
+    private final TrafficReport report;
+    private final long[] waitMillis;
+
+    Run(TrafficReport report, long[] waitMillis) {
+      this.report = report;
+      this.waitMillis = waitMillis;
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.example.elevator.simulation;
+
+import lombok.Value;
+
+/**
+ * Passenger arriving at a floor at a point in time, wanting to travel to another floor.
+ */
+@Value
+public class PassengerCall {
+
+  long timeMillis;
+  int origin;
+  int destination;
+}
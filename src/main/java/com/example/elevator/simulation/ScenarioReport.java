@@ -0,0 +1,25 @@
+package com.example.elevator.simulation;
+
+import lombok.Value;
+
+/**
+ * Outcome of all runs of a {@link SimulationScenario}. Wait percentiles are taken over the waits
+ * of all runs together; the standard error of the average wait shows how much the average still
+ * varies between runs. Trip time, throughput and energy are averaged over the runs.
+ */
+@Value
+public class ScenarioReport {
+
+  SimulationScenario scenario;
+  int runs;
+  int passengers;
+  int delivered;
+  double averageWaitSeconds;
+  double averageWaitStandardErrorSeconds;
+  double p50WaitSeconds;
+  double p90WaitSeconds;
+  double p99WaitSeconds;
+  double averageTripSeconds;
+  double passengersPerHour;
+  double energyKilowattHours;
+}
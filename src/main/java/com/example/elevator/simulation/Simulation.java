@@ -0,0 +1,126 @@
+package com.example.elevator.simulation;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorListener;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.time.VirtualTimeSource;
+import java.util.PriorityQueue;
+import lombok.Getter;
+
+/**
+ * Discrete-event simulation of an elevator bank. Orders and car steps are events on a priority
+ * queue ordered by virtual time; processing an event advances the clock to its time, so a
+ * simulated hour takes only as long as the events in it need to compute.
+ *
+ * <p>The bank must be created with the same {@link VirtualTimeSource} as the simulation. Cars are
+ * woken by any order added to them, so orders may also be placed from event actions, for example
+ * through an {@code ElevatorService} built on the bank. A simulation is single-threaded, run
+ * independent simulations to use more cores.
+ */
+public class Simulation implements ElevatorListener {
+
+  @Getter
+  private final ElevatorBank bank;
+  private final VirtualTimeSource clock;
+  private final PriorityQueue<SimulationEvent> events = new PriorityQueue<>();
+  private final Runnable[] stepActions;
+  private final boolean[] stepScheduled;
+  private long nextSequence;
+  @Getter
+  private long processedEvents;
+
+  public Simulation(ElevatorBank bank, VirtualTimeSource clock) {
+    this.bank = bank;
+    this.clock = clock;
+    int cars = bank.getElevators().size();
+    this.stepActions = new Runnable[cars];
+    this.stepScheduled = new boolean[cars];
+    for (Elevator elevator : bank.getElevators()) {
+      stepActions[elevator.getId()] = () -> step(elevator);
+      elevator.addListener(this);
+    }
+  }
+
+  public long currentTimeMillis() {
+    return clock.currentTimeMillis();
+  }
+
+  public void schedule(long timeMillis, Runnable action) {
+    events.add(new SimulationEvent(Math.max(timeMillis, clock.currentTimeMillis()),
+        nextSequence++, action));
+  }
+
+  /**
+   * Schedules a hall call, or a car call assigned by the bank's dispatch strategy.
+   */
+  public void addOrder(long timeMillis, int floor, OrderType orderType) {
+    schedule(timeMillis, () -> addOrderNow(bank.assign(floor, orderType), floor, orderType));
+  }
+
+  /**
+   * Schedules a call placed inside the given car.
+   */
+  public void addOrder(long timeMillis, int floor, OrderType orderType, int elevatorId) {
+    schedule(timeMillis, () -> addOrderNow(bank.getElevator(elevatorId), floor, orderType));
+  }
+
+  /**
+   * Processes events until the queue is empty. Returns the number of events processed.
+   */
+  public long run() {
+    return runUntil(Long.MAX_VALUE);
+  }
+
+  /**
+   * Processes all events due up to and including the given time. Returns the number of events
+   * processed.
+   */
+  public long runUntil(long endTimeMillis) {
+    long processedBefore = processedEvents;
+    while (!events.isEmpty() && events.peek().getTimeMillis() <= endTimeMillis) {
+      SimulationEvent event = events.poll();
+      clock.advanceTo(event.getTimeMillis());
+      event.getAction().run();
+      processedEvents++;
+    }
+    if (endTimeMillis != Long.MAX_VALUE && endTimeMillis > clock.currentTimeMillis()) {
+      clock.advanceTo(endTimeMillis);
+    }
+    return processedEvents - processedBefore;
+  }
+
+  @Override
+  public void onOrderAdded(Elevator elevator, int floor, OrderType orderType) {
+    wake(elevator);
+  }
+
+  @Override
+  public void onStateChanged(Elevator elevator, ElevatorState state) {
+    // Orders given during an emergency break are served once it is released
+    if (ElevatorState.IDLE.equals(state) && elevator.hasPendingWork()) {
+      wake(elevator);
+    }
+  }
+
+  private void addOrderNow(Elevator elevator, int floor, OrderType orderType) {
+    elevator.addOrder(floor, orderType);
+  }
+
+  private void wake(Elevator elevator) {
+    if (!stepScheduled[elevator.getId()]) {
+      stepScheduled[elevator.getId()] = true;
+      schedule(clock.currentTimeMillis(), stepActions[elevator.getId()]);
+    }
+  }
+
+  private void step(Elevator elevator) {
+    long busyMillis = elevator.step();
+    if (busyMillis == Elevator.NO_ACTION) {
+      stepScheduled[elevator.getId()] = false;
+    } else {
+      schedule(clock.currentTimeMillis() + busyMillis, stepActions[elevator.getId()]);
+    }
+  }
+}
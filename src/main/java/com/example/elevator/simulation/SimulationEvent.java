@@ -0,0 +1,27 @@
+package com.example.elevator.simulation;
+
+import lombok.Getter;
+
+/**
+ * Action due at a point in virtual time. Events due at the same time run in the order they were
+ * scheduled.
+ */
+@Getter
+class SimulationEvent implements Comparable<SimulationEvent> {
+
+  private final long timeMillis;
+  private final long sequence;
+  private final Runnable action;
+
+  SimulationEvent(long timeMillis, long sequence, Runnable action) {
+    this.timeMillis = timeMillis;
+    this.sequence = sequence;
+    this.action = action;
+  }
+
+  @Override
+  public int compareTo(SimulationEvent other) {
+    int byTime = Long.compare(timeMillis, other.timeMillis);
+    return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+  }
+}
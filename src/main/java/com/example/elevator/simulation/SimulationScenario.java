@@ -0,0 +1,23 @@
+package com.example.elevator.simulation;
+
+import com.example.elevator.dispatch.DispatchStrategyType;
+import com.example.elevator.elevator.LoadModel;
+import lombok.Value;
+
+/**
+ * Building configuration and traffic evaluated by a {@link MonteCarloEvaluator}. With destination
+ * dispatch, passengers enter destinations at the hall and the dispatch strategy is not used.
+ */
+@Value
+public class SimulationScenario {
+
+  int cars;
+  int totalFloors;
+  int floorTimeInSeconds;
+  int doorOpeningTimeInSeconds;
+  LoadModel loadModel;
+  DispatchStrategyType dispatchStrategy;
+  boolean destinationDispatch;
+  TrafficPattern pattern;
+  double passengersPerHour;
+}
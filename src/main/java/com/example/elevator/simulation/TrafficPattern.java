@@ -0,0 +1,27 @@
+package com.example.elevator.simulation;
+
+import lombok.Getter;
+
+/**
+ * Classic office building traffic patterns, as the share of passengers travelling from the lobby
+ * up (incoming), between upper floors, and from upper floors down to the lobby (outgoing).
+ */
+@Getter
+public enum TrafficPattern {
+  UP_PEAK(0.85, 0.10),
+  DOWN_PEAK(0.05, 0.10),
+  LUNCH(0.45, 0.10),
+  INTER_FLOOR(0.10, 0.80);
+
+  private final double incoming;
+  private final double interFloor;
+
+  TrafficPattern(double incoming, double interFloor) {
+    this.incoming = incoming;
+    this.interFloor = interFloor;
+  }
+
+  public double getOutgoing() {
+    return 1 - incoming - interFloor;
+  }
+}
@@ -0,0 +1,287 @@
+package com.example.elevator.simulation;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorListener;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.parking.ParkingPolicy;
+import com.example.elevator.service.ElevatorService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plays passenger calls through an {@link ElevatorService} in a {@link Simulation} and measures
+ * how well they are served.
+ *
+ * <p>A passenger pushes the hall button for their direction and waits for the car the dispatcher
+ * assigned. When that car opens its door on the origin floor and the hall call is gone, the
+ * passenger boards and pushes the car button for the destination, and leaves when the door opens
+ * there. Getting on and off is reported to the car, and passengers who do not fit in a full car
+ * push the hall button again. Passengers still waiting or riding when the simulation runs out of
+ * events are counted but not delivered.
+ *
+ * <p>With destination dispatch, a passenger enters their destination at the hall instead and waits
+ * for the car the {@link com.example.elevator.dispatch.DestinationDispatcher} assigned.
+ *
+ * <p>With a {@link ParkingPolicy}, a car that became idle without orders is parked after the
+ * given idle time, as long as passengers are still to be delivered.
+ */
+public class TrafficReplay implements ElevatorListener {
+
+  private final Simulation simulation;
+  private final ElevatorService service;
+  private final Map<Elevator, List<Passenger>> waiting = new HashMap<>(); // By assigned car
+  private final Map<Elevator, List<Passenger>> riding = new HashMap<>(); // By car
+  private final List<Passenger> passengers = new ArrayList<>();
+  private final ParkingPolicy parking;
+  private final long idleMillis;
+  private final boolean destinationDispatch;
+  private int undelivered;
+  private int stops;
+  private long startReversals;
+  private double startJoules;
+  private long startMillis = Long.MAX_VALUE;
+  private long endMillis;
+
+  /**
+   * The service must be built on the bank of the simulation.
+   */
+  public TrafficReplay(Simulation simulation, ElevatorService service) {
+    this(simulation, service, null, 0, false);
+  }
+
+  /**
+   * The service must be built on the bank of the simulation, the parking policy may be null.
+   */
+  public TrafficReplay(Simulation simulation, ElevatorService service, ParkingPolicy parking,
+      long idleMillis) {
+    this(simulation, service, parking, idleMillis, false);
+  }
+
+  /**
+   * The service must be built on the bank of the simulation, the parking policy may be null.
+   */
+  public TrafficReplay(Simulation simulation, ElevatorService service, ParkingPolicy parking,
+      long idleMillis, boolean destinationDispatch) {
+    this.simulation = simulation;
+    this.service = service;
+    this.parking = parking;
+    this.idleMillis = idleMillis;
+    this.destinationDispatch = destinationDispatch;
+    for (Elevator elevator : simulation.getBank().getElevators()) {
+      waiting.put(elevator, new ArrayList<>());
+      riding.put(elevator, new ArrayList<>());
+      elevator.addListener(this);
+    }
+  }
+
+  /**
+   * Schedules the calls, runs the simulation until every car is idle and reports on all calls
+   * played so far.
+   */
+  public TrafficReport run(List<PassengerCall> calls) {
+    long firstMillis = Long.MAX_VALUE;
+    for (PassengerCall call : calls) {
+      if (call.getOrigin() == call.getDestination()) {
+        continue;
+      }
+      Passenger passenger = new Passenger(call);
+      passengers.add(passenger);
+      undelivered++;
+      firstMillis = Math.min(firstMillis, call.getTimeMillis());
+      startMillis = Math.min(startMillis, call.getTimeMillis());
+      simulation.schedule(call.getTimeMillis(), () -> arrive(passenger));
+    }
+    if (firstMillis != Long.MAX_VALUE) {
+      simulation.schedule(firstMillis, () -> {
+        startReversals = reversals();
+        startJoules = joules();
+      });
+    }
+    if (parking != null && firstMillis != Long.MAX_VALUE) {
+      // Cars may be moved to where earlier runs saw demand before the first call
+      for (Elevator elevator : simulation.getBank().getElevators()) {
+        simulation.schedule(firstMillis - idleMillis, () -> parking.park(elevator));
+      }
+    }
+    simulation.run();
+    return report();
+  }
+
+  @Override
+  public void onStateChanged(Elevator elevator, ElevatorState state) {
+    if (parking != null && undelivered > 0 && ElevatorState.IDLE.equals(state)
+        && elevator.getOrders().isEmpty()) {
+      simulation.schedule(simulation.currentTimeMillis() + idleMillis,
+          () -> parking.park(elevator));
+    }
+  }
+
+  @Override
+  public void onDoorOpened(Elevator elevator, int floor) {
+    stops++;
+    // Boarding adds an order, so it runs after the step that opened the door
+    simulation.schedule(simulation.currentTimeMillis(), () -> exchange(elevator, floor));
+  }
+
+  private void arrive(Passenger passenger) {
+    PassengerCall call = passenger.call;
+    OrderType direction = call.getDestination() > call.getOrigin() ? OrderType.UP : OrderType.DOWN;
+    passenger.direction = direction;
+    Elevator assigned = destinationDispatch
+        ? service.addDestinationCall(call.getOrigin(), call.getDestination())
+        : service.addDestinationFloor(call.getOrigin(), direction);
+    waiting.get(assigned).add(passenger);
+  }
+
+  private void exchange(Elevator elevator, int floor) {
+    long now = simulation.currentTimeMillis();
+
+    int alighting = 0;
+    Iterator<Passenger> leaving = riding.get(elevator).iterator();
+    while (leaving.hasNext()) {
+      Passenger passenger = leaving.next();
+      if (passenger.call.getDestination() == floor
+          && !elevator.getOrders().contains(floor, OrderType.NEUTRAL)) {
+        passenger.arrivedMillis = now;
+        endMillis = Math.max(endMillis, now);
+        undelivered--;
+        alighting++;
+        leaving.remove();
+      }
+    }
+
+    int room = elevator.getLoadModel().getCapacity() - Math.max(elevator.getLoad() - alighting, 0);
+    int boarding = 0;
+    List<Passenger> leftBehind = new ArrayList<>();
+    for (Passenger passenger : boardingAt(elevator, floor)) {
+      if (boarding >= room) {
+        leftBehind.add(passenger);
+        continue;
+      }
+      passenger.boardedMillis = now;
+      boarding++;
+      riding.get(elevator).add(passenger);
+      service.addDestinationFloor(passenger.call.getDestination(), OrderType.NEUTRAL,
+          elevator.getId());
+    }
+    elevator.transfer(alighting, boarding);
+
+    // Passengers who did not fit push the button again
+    for (Passenger passenger : leftBehind) {
+      arrive(passenger);
+    }
+  }
+
+  /**
+   * Removes and returns the passengers on the floor whose hall call the car served. Besides the
+   * passengers waiting for the car, these are the passengers of cars that filled up and handed
+   * their hall call to this one.
+   */
+  private List<Passenger> boardingAt(Elevator elevator, int floor) {
+    List<Passenger> boarding = new ArrayList<>();
+    for (Elevator owner : simulation.getBank().getElevators()) {
+      Iterator<Passenger> entering = waiting.get(owner).iterator();
+      while (entering.hasNext()) {
+        Passenger passenger = entering.next();
+        if (passenger.call.getOrigin() == floor && (owner == elevator
+            ? !elevator.getOrders().contains(floor, passenger.direction)
+            : !isCalled(floor, passenger.direction))) {
+          entering.remove();
+          boarding.add(passenger);
+        }
+      }
+    }
+    return boarding;
+  }
+
+  private boolean isCalled(int floor, OrderType direction) {
+    for (Elevator elevator : simulation.getBank().getElevators()) {
+      if (elevator.getOrders().contains(floor, direction)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the wait times of all passengers who boarded so far, sorted.
+   */
+  public long[] getWaitMillis() {
+    long[] waits = new long[passengers.size()];
+    int boarded = 0;
+    for (Passenger passenger : passengers) {
+      if (passenger.boardedMillis >= 0) {
+        waits[boarded++] = passenger.boardedMillis - passenger.call.getTimeMillis();
+      }
+    }
+    waits = Arrays.copyOf(waits, boarded);
+    Arrays.sort(waits);
+    return waits;
+  }
+
+  private TrafficReport report() {
+    long[] waits = getWaitMillis();
+    long[] trips = new long[passengers.size()];
+    int delivered = 0;
+    for (Passenger passenger : passengers) {
+      if (passenger.arrivedMillis >= 0) {
+        trips[delivered++] = passenger.arrivedMillis - passenger.call.getTimeMillis();
+      }
+    }
+    trips = Arrays.copyOf(trips, delivered);
+    Arrays.sort(trips);
+
+    double hours = (endMillis - startMillis) / 3_600_000.0;
+    return new TrafficReport(passengers.size(), delivered, stops,
+        averageSeconds(waits), percentileSeconds(waits, 50), percentileSeconds(waits, 90),
+        percentileSeconds(waits, 99),
+        averageSeconds(trips), percentileSeconds(trips, 50), percentileSeconds(trips, 90),
+        percentileSeconds(trips, 99),
+        delivered == 0 || hours <= 0 ? 0 : delivered / hours,
+        reversals() - startReversals, (joules() - startJoules) / 3_600_000);
+  }
+
+  private long reversals() {
+    return simulation.getBank().getElevators().stream()
+        .mapToLong(elevator -> elevator.getEnergyMeter().getReversals())
+        .sum();
+  }
+
+  private double joules() {
+    return simulation.getBank().getElevators().stream()
+        .mapToDouble(Elevator::getEnergyJoules)
+        .sum();
+  }
+
+  static double averageSeconds(long[] millis) {
+    return millis.length == 0 ? 0 : Arrays.stream(millis).average().orElse(0) / 1000;
+  }
+
+  /**
+   * Nearest-rank percentile of sorted values.
+   */
+  static double percentileSeconds(long[] sortedMillis, int percentile) {
+    if (sortedMillis.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percentile / 100.0 * sortedMillis.length);
+    return sortedMillis[Math.max(rank, 1) - 1] / 1000.0;
+  }
+
+  private static class Passenger {
+
+    private final PassengerCall call;
+    private OrderType direction;
+    private long boardedMillis = -1;
+    private long arrivedMillis = -1;
+
+    Passenger(PassengerCall call) {
+      this.call = call;
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.elevator.simulation;
+
+import lombok.Value;
+
+/**
+ * Outcome of a {@link TrafficReplay}. Wait time runs from arrival at the origin floor until the
+ * door of the assigned car opens there, trip time from arrival until the door opens at the
+ * destination. Stops count the door openings of all cars. Throughput counts delivered passengers
+ * per hour of simulated time. Reversals and energy are counted from the first call on, with the
+ * energy model of each car.
+ */
+@Value
+public class TrafficReport {
+
+  int passengers;
+  int delivered;
+  int stops;
+  double averageWaitSeconds;
+  double p50WaitSeconds;
+  double p90WaitSeconds;
+  double p99WaitSeconds;
+  double averageTripSeconds;
+  double p50TripSeconds;
+  double p90TripSeconds;
+  double p99TripSeconds;
+  double passengersPerHour;
+  long reversals;
+  double energyKilowattHours;
+}
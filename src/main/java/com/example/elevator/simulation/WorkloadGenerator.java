@@ -0,0 +1,138 @@
+package com.example.elevator.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates passenger calls with Poisson arrivals. Whether a passenger travels up from the lobby,
+ * down to it or between upper floors follows the {@link TrafficPattern}; upper floors are picked
+ * in proportion to their weight, for example the number of people working there. Floor 1 is the
+ * lobby.
+ */
+public class WorkloadGenerator {
+
+  private static final int LOBBY = 1;
+
+  private final TrafficPattern pattern;
+  private final double passengersPerHour;
+  private final double[] cumulativeWeights; // Upper floors, index 0 is floor 2
+  private final Random random;
+
+  /**
+   * Creates a generator with equal weights for all upper floors.
+   */
+  public WorkloadGenerator(TrafficPattern pattern, double passengersPerHour, int totalFloors,
+      long seed) {
+    this(pattern, passengersPerHour, uniformWeights(totalFloors), seed);
+  }
+
+  /**
+   * Creates a generator for a building with as many floors as there are weights. The weight of
+   * the lobby, the first element, is ignored.
+   */
+  public WorkloadGenerator(TrafficPattern pattern, double passengersPerHour,
+      double[] floorWeights, long seed) {
+    if (floorWeights.length < 3) {
+      throw new IllegalArgumentException("Building needs at least two upper floors");
+    }
+    if (passengersPerHour <= 0) {
+      throw new IllegalArgumentException("Passengers per hour must be positive");
+    }
+    this.pattern = pattern;
+    this.passengersPerHour = passengersPerHour;
+    this.cumulativeWeights = new double[floorWeights.length - 1];
+    double total = 0;
+    for (int i = 1; i < floorWeights.length; i++) {
+      if (floorWeights[i] < 0) {
+        throw new IllegalArgumentException("Floor weights must not be negative");
+      }
+      total += floorWeights[i];
+      cumulativeWeights[i - 1] = total;
+    }
+    if (total <= 0) {
+      throw new IllegalArgumentException("At least one upper floor needs a positive weight");
+    }
+    this.random = new Random(seed);
+  }
+
+  /**
+   * Returns the calls arriving from the given start time for the given duration, in arrival
+   * order.
+   */
+  public List<PassengerCall> generate(long startMillis, long durationMillis) {
+    double meanGapMillis = 3_600_000 / passengersPerHour;
+    List<PassengerCall> calls = new ArrayList<>();
+    double time = startMillis + exponential(meanGapMillis);
+    while (time < startMillis + durationMillis) {
+      calls.add(call((long) time));
+      time += exponential(meanGapMillis);
+    }
+    return calls;
+  }
+
+  private PassengerCall call(long timeMillis) {
+    double kind = random.nextDouble();
+    if (kind < pattern.getIncoming()) {
+      return new PassengerCall(timeMillis, LOBBY, upperFloor());
+    }
+    if (kind < pattern.getIncoming() + pattern.getInterFloor()) {
+      int origin = upperFloor();
+      double otherWeight = totalWeight() - weightOf(origin);
+      if (otherWeight <= 0) {
+        // Nobody else to visit
+        return new PassengerCall(timeMillis, origin, LOBBY);
+      }
+      // Draw from the other floors by skipping over the share of the origin
+      double target = random.nextDouble() * otherWeight;
+      if (target >= weightBelow(origin)) {
+        target += weightOf(origin);
+      }
+      return new PassengerCall(timeMillis, origin, floorAt(target));
+    }
+    return new PassengerCall(timeMillis, upperFloor(), LOBBY);
+  }
+
+  private int upperFloor() {
+    return floorAt(random.nextDouble() * totalWeight());
+  }
+
+  /**
+   * Returns the floor whose share of the cumulative weights contains the target.
+   */
+  private int floorAt(double target) {
+    int index = Arrays.binarySearch(cumulativeWeights, target);
+    if (index < 0) {
+      // Insertion point, clamped against rounding past the total
+      index = Math.min(-index - 1, cumulativeWeights.length - 1);
+    }
+    // Shares are half-open, and floors without weight repeat the value of the floor below
+    while (index < cumulativeWeights.length - 1 && cumulativeWeights[index] <= target) {
+      index++;
+    }
+    return index + 2;
+  }
+
+  private double weightOf(int floor) {
+    return cumulativeWeights[floor - 2] - weightBelow(floor);
+  }
+
+  private double weightBelow(int floor) {
+    return floor == 2 ? 0 : cumulativeWeights[floor - 3];
+  }
+
+  private double totalWeight() {
+    return cumulativeWeights[cumulativeWeights.length - 1];
+  }
+
+  private double exponential(double mean) {
+    return -Math.log(1 - random.nextDouble()) * mean;
+  }
+
+  private static double[] uniformWeights(int totalFloors) {
+    double[] weights = new double[totalFloors];
+    Arrays.fill(weights, 1);
+    return weights;
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.elevator.time;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class SystemTimeSource implements TimeSource {
+
+  @Override
+  public long currentTimeMillis() {
+    return System.currentTimeMillis();
+  }
+
+  @Override
+  public void sleep(long millis) throws InterruptedException {
+    Thread.sleep(millis);
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.elevator.time;
+
+/**
+ * Source of time for the elevator model. Production uses the wall clock, simulations use a
+ * virtual clock that only advances when the simulation processes an event.
+ */
+public interface TimeSource {
+
+  long currentTimeMillis();
+
+  void sleep(long millis) throws InterruptedException;
+}
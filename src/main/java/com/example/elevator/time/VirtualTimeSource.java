@@ -0,0 +1,28 @@
+package com.example.elevator.time;
+
+/**
+ * Clock that is advanced explicitly. Sleeping advances the clock instead of blocking, so code
+ * written against {@link TimeSource} runs as fast as the CPU allows. Not thread-safe, a virtual
+ * clock belongs to a single simulation thread.
+ */
+public class VirtualTimeSource implements TimeSource {
+
+  private long currentTimeMillis;
+
+  @Override
+  public long currentTimeMillis() {
+    return currentTimeMillis;
+  }
+
+  @Override
+  public void sleep(long millis) {
+    currentTimeMillis += millis;
+  }
+
+  public void advanceTo(long timeMillis) {
+    if (timeMillis < currentTimeMillis) {
+      throw new IllegalArgumentException("Virtual time cannot go backwards");
+    }
+    currentTimeMillis = timeMillis;
+  }
+}
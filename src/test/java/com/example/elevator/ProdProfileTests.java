@@ -0,0 +1,39 @@
+package com.example.elevator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.service.ElevatorService;
+import java.time.Duration;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import springfox.documentation.spring.web.plugins.Docket;
+
+@SpringBootTest
+@ActiveProfiles({"test", "prod"})
+class ProdProfileTests {
+
+  @Autowired
+  ConfigurableApplicationContext context;
+
+  @Test
+  void leavesSwaggerOutAndCreatesControllersOnFirstUse() {
+    assertThat(context.getBeanNamesForType(Docket.class)).isEmpty();
+    assertThat(context.getBeanFactory().containsSingleton("elevatorController")).isFalse();
+    assertThat(context.getBeanFactory().containsSingleton("elevatorScheduler")).isTrue();
+  }
+
+  @Test
+  void movesCarsWithLazyBeans() {
+    context.getBean(ElevatorService.class).addDestinationFloor(5, OrderType.NEUTRAL);
+
+    ElevatorBank bank = context.getBean(ElevatorBank.class);
+    Awaitility.await().atMost(Duration.ofSeconds(5))
+        .until(() -> bank.getElevator(0).getCurrentFloor() == 5);
+  }
+}
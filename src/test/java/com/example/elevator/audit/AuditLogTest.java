@@ -0,0 +1,48 @@
+package com.example.elevator.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.dispatch.NearestCarDispatchStrategy;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.time.VirtualTimeSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.EnumSet;
+import org.junit.jupiter.api.Test;
+
+class AuditLogTest {
+
+  ElevatorBank bank = new ElevatorBank(1, 10, 0, 0, new NearestCarDispatchStrategy(),
+      new VirtualTimeSource());
+  MeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void countsDroppedEventsInsteadOfBlocking() {
+    AuditLog auditLog = new AuditLog(bank, new VirtualTimeSource(), registry, 4,
+        EnumSet.allOf(AuditEventType.class), 1, 0);
+    auditLog.start();
+
+    for (int floor = 1; floor <= 10; floor++) {
+      bank.getElevator(0).addOrder(floor, OrderType.NEUTRAL);
+    }
+    auditLog.flush();
+
+    assertThat(registry.counter("elevator.audit.written").count()).isEqualTo(4);
+    assertThat(registry.counter("elevator.audit.dropped").count()).isEqualTo(6);
+  }
+
+  @Test
+  void keepsOnlyConfiguredEvents() throws InterruptedException {
+    AuditLog auditLog = new AuditLog(bank, new VirtualTimeSource(), registry, 64,
+        EnumSet.of(AuditEventType.DOOR_OPENED), 1, 0);
+    auditLog.start();
+
+    bank.getElevator(0).addOrder(3, OrderType.NEUTRAL);
+    bank.getElevator(0).addOrder(5, OrderType.NEUTRAL);
+    bank.getElevator(0).move();
+    auditLog.shutdown();
+
+    assertThat(registry.counter("elevator.audit.written").count()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.elevator.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.elevator.OrderType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AuditRingBufferTest {
+
+  @Test
+  void dropsEventsWhenFullAndReusesSlotsAfterDrain() {
+    AuditRingBuffer buffer = new AuditRingBuffer(4);
+
+    for (int floor = 1; floor <= 4; floor++) {
+      assertThat(buffer.offer(floor, AuditEventType.ORDER_ADDED, "default", 0, floor,
+          OrderType.NEUTRAL)).isTrue();
+    }
+    assertThat(buffer.offer(5, AuditEventType.ORDER_ADDED, "default", 0, 5, OrderType.NEUTRAL))
+        .isFalse();
+
+    List<Integer> floors = new ArrayList<>();
+    assertThat(buffer.drain((time, type, building, elevator, floor, detail) -> floors.add(floor)))
+        .isEqualTo(4);
+    assertThat(floors).containsExactly(1, 2, 3, 4);
+    assertThat(buffer.offer(6, AuditEventType.ORDER_ADDED, "default", 0, 6, OrderType.NEUTRAL))
+        .isTrue();
+  }
+
+  @Test
+  void concurrentProducersLoseNothingWhileThereIsRoom() throws InterruptedException {
+    AuditRingBuffer buffer = new AuditRingBuffer(1 << 16);
+    ExecutorService producers = Executors.newFixedThreadPool(4);
+    for (int producer = 0; producer < 4; producer++) {
+      int elevator = producer;
+      producers.execute(() -> {
+        for (int floor = 0; floor < 10_000; floor++) {
+          buffer.offer(floor, AuditEventType.FLOOR_REACHED, "default", elevator, floor, null);
+        }
+      });
+    }
+    producers.shutdown();
+    assertThat(producers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    int[] lastFloor = {-1, -1, -1, -1};
+    int drained = buffer.drain((time, type, building, elevator, floor, detail) -> {
+      // Events of one producer come out in the order they went in
+      assertThat(floor).isGreaterThan(lastFloor[elevator]);
+      lastFloor[elevator] = floor;
+    });
+
+    assertThat(drained).isEqualTo(40_000);
+  }
+}
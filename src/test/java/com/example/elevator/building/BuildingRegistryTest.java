@@ -0,0 +1,114 @@
+package com.example.elevator.building;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.elevator.dispatch.NearestCarDispatchStrategy;
+import com.example.elevator.dto.BuildingRequest;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.exception.InvalidBuildingException;
+import com.example.elevator.exception.InvalidFloorException;
+import com.example.elevator.scheduler.ElevatorScheduler;
+import com.example.elevator.service.ElevatorService;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.SystemTimeSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BuildingRegistryTest {
+
+  ElevatorBank defaultBank;
+  ElevatorScheduler scheduler;
+  BuildingRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    NearestCarDispatchStrategy dispatchStrategy = new NearestCarDispatchStrategy();
+    SystemTimeSource timeSource = new SystemTimeSource();
+    EstimatedTimeCalculator calculator = new EstimatedTimeCalculator();
+    defaultBank = new ElevatorBank(1, 10, 0, 0, dispatchStrategy, timeSource);
+    scheduler = new ElevatorScheduler(defaultBank, 1, new SimpleMeterRegistry());
+    scheduler.start();
+    registry = new BuildingRegistry(defaultBank, new ElevatorService(defaultBank, calculator),
+        dispatchStrategy, calculator, timeSource, List.of(scheduler), 3, 0);
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.shutdown();
+  }
+
+  @Test
+  void buildingsHaveTheirOwnFloorsAndAreDriven() {
+    registry.addBuilding("tower", new BuildingRequest(2, 40, 0, 0));
+
+    Elevator assigned = registry.getService("tower").addDestinationFloor(35, OrderType.DOWN);
+
+    Awaitility.await().atMost(Duration.ofMillis(500))
+        .until(() -> assigned.getCurrentFloor() == 35);
+    assertThat(registry.getBuilding("tower").getBank().getElevators()).hasSize(2);
+    assertThat(defaultBank.getElevator(0).getCurrentFloor()).isEqualTo(1);
+    assertThatThrownBy(() -> registry.getService(null).addDestinationFloor(35, OrderType.DOWN))
+        .isInstanceOf(InvalidFloorException.class);
+  }
+
+  @Test
+  void nullIdIsTheDefaultBuilding() {
+    assertThat(registry.getBuilding(null).getBank()).isSameAs(defaultBank);
+    assertThat(registry.getBuilding(BuildingRegistry.DEFAULT_BUILDING).getBank())
+        .isSameAs(defaultBank);
+  }
+
+  @Test
+  void rejectsInvalidAndDuplicateBuildings() {
+    registry.addBuilding("tower", new BuildingRequest(1, 10, 1, 3));
+
+    assertThatThrownBy(() -> registry.addBuilding("tower", new BuildingRequest(1, 10, 1, 3)))
+        .isInstanceOf(InvalidBuildingException.class);
+    assertThatThrownBy(() -> registry.addBuilding("a/b", new BuildingRequest(1, 10, 1, 3)))
+        .isInstanceOf(InvalidBuildingException.class);
+    assertThatThrownBy(() -> registry.addBuilding("empty", new BuildingRequest(0, 10, 1, 3)))
+        .isInstanceOf(InvalidBuildingException.class);
+    assertThatThrownBy(() -> registry.addBuilding("flat", new BuildingRequest(1, 1, 1, 3)))
+        .isInstanceOf(InvalidBuildingException.class);
+    assertThatThrownBy(() -> registry.getBuilding("unknown"))
+        .isInstanceOf(InvalidBuildingException.class);
+
+    registry.addBuilding("annex", new BuildingRequest(1, 10, 1, 3));
+    assertThatThrownBy(() -> registry.addBuilding("full", new BuildingRequest(1, 10, 1, 3)))
+        .isInstanceOf(InvalidBuildingException.class);
+  }
+
+  @Test
+  void addedBuildingsOnlyCountCallsWhenConfigured() {
+    registry.addBuilding("tower", new BuildingRequest(1, 10, 0, 0));
+    BuildingRegistry counting = new BuildingRegistry(defaultBank,
+        registry.getService(null), new NearestCarDispatchStrategy(),
+        new EstimatedTimeCalculator(), new SystemTimeSource(), List.of(), 3, 60);
+    counting.addBuilding("tower", new BuildingRequest(1, 10, 0, 0));
+
+    assertThat(registry.getBuilding("tower").getBank().getCallStatistics()).isNull();
+    assertThat(counting.getBuilding("tower").getBank().getCallStatistics().getMinutes())
+        .isEqualTo(60);
+  }
+
+  @Test
+  void removesBuildingsButNotTheDefault() {
+    registry.addBuilding("tower", new BuildingRequest(1, 10, 0, 0));
+
+    registry.removeBuilding("tower");
+
+    assertThat(registry.getBuildingIds()).containsExactly(BuildingRegistry.DEFAULT_BUILDING);
+    assertThatThrownBy(() -> registry.removeBuilding(BuildingRegistry.DEFAULT_BUILDING))
+        .isInstanceOf(InvalidBuildingException.class);
+    assertThatThrownBy(() -> registry.removeBuilding("tower"))
+        .isInstanceOf(InvalidBuildingException.class);
+  }
+}
@@ -0,0 +1,77 @@
+package com.example.elevator.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.dto.BuildingRequest;
+import com.example.elevator.dto.OrderRequest;
+import com.example.elevator.elevator.OrderType;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "elevator.buildings.demandMinutes=60")
+@ActiveProfiles("reactive")
+class ElevatorRouterTest {
+
+  @Autowired
+  WebTestClient client;
+
+  @Test
+  void servesElevatorRoutesLikeTheServletStack() {
+    client.post().uri("/elevator/UP/5").exchange()
+        .expectStatus().isOk()
+        .expectBody(String.class).isEqualTo("UP button pushed on floor 5, elevator 0 assigned");
+    client.get().uri("/elevator/state?elevator=0").exchange()
+        .expectStatus().isOk()
+        .expectBody(String.class).value(body -> assertThat(body).startsWith("Current state: "));
+    client.get().uri("/elevator/estimatedtime").exchange()
+        .expectStatus().isOk()
+        .expectBody(int[].class).value(times -> assertThat(times).hasSize(10));
+    client.post().uri("/elevator/orders")
+        .bodyValue(List.of(new OrderRequest(OrderType.NEUTRAL, 7)))
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody().jsonPath("$[0].floor").isEqualTo(7);
+  }
+
+  @Test
+  void servesAddedBuildings() {
+    client.post().uri("/building/tower").bodyValue(new BuildingRequest(2, 30, 1, 3)).exchange()
+        .expectStatus().isOk();
+
+    client.get().uri("/building/tower/elevator/estimatedtime/30").exchange()
+        .expectStatus().isOk()
+        .expectBody(String.class).isEqualTo("Estimated time to floor 30: 29 seconds");
+    client.post().uri("/building/tower/elevator/destination/3/20").exchange()
+        .expectStatus().isOk()
+        .expectBody(String.class)
+        .isEqualTo("Destination 20 entered on floor 3, elevator 0 assigned");
+    client.get().uri("/building/tower/elevator/demand?minutes=10&bucketMinutes=10").exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.counts[0].length()").isEqualTo(30)
+        .jsonPath("$.counts[0][2]").isEqualTo(1)
+        .jsonPath("$.counts[0][19]").isEqualTo(1);
+  }
+
+  @Test
+  void rejectsInvalidRequests() {
+    client.get().uri("/elevator/estimatedtime/11").exchange()
+        .expectStatus().isBadRequest()
+        .expectBody(String.class).isEqualTo("Floor must be between 1 and 10");
+    client.post().uri("/elevator/destination/4/4").exchange()
+        .expectStatus().isBadRequest()
+        .expectBody(String.class).isEqualTo("Destination must differ from origin");
+    client.get().uri("/elevator/demand?minutes=0").exchange()
+        .expectStatus().isBadRequest()
+        .expectBody(String.class).isEqualTo("Minutes must be between 1 and 1440");
+    client.post().uri("/elevator/SIDEWAYS/3").exchange()
+        .expectStatus().isBadRequest();
+    client.get().uri("/building/unknown/elevator/state").exchange()
+        .expectStatus().isBadRequest();
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.elevator.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.elevator.building.BuildingRegistry;
+import com.example.elevator.dispatch.DispatchStrategy;
+import com.example.elevator.dispatch.NearestCarDispatchStrategy;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.service.ElevatorService;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.VirtualTimeSource;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class PanelControllerTest {
+
+  MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    EstimatedTimeCalculator calculator = new EstimatedTimeCalculator();
+    DispatchStrategy dispatchStrategy = new NearestCarDispatchStrategy();
+    VirtualTimeSource timeSource = new VirtualTimeSource();
+    ElevatorBank bank = new ElevatorBank(2, 10, 1, 3, dispatchStrategy, timeSource);
+    BuildingRegistry registry = new BuildingRegistry(bank, new ElevatorService(bank, calculator),
+        dispatchStrategy, calculator, timeSource, List.of(), 1, 0);
+    mockMvc = MockMvcBuilders.standaloneSetup(new PanelController(registry))
+        .setControllerAdvice(new ControllerExceptionHandler())
+        .build();
+  }
+
+  @Test
+  void answersOrdersWithTheAssignedCar() throws Exception {
+    mockMvc.perform(post("/panel/NEUTRAL/4").param("elevator", "1"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.car").value(1))
+        .andExpect(jsonPath("$.floor").value(1))
+        .andExpect(jsonPath("$.eta").value(3));
+  }
+
+  @Test
+  void answersStatusInBinaryWhenAccepted() throws Exception {
+    mockMvc.perform(get("/panel/5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[1].state").value("IDLE"));
+
+    mockMvc.perform(get("/panel/5").accept(MediaType.APPLICATION_OCTET_STREAM))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+        .andExpect(content().bytes(new byte[] {0, 2, 0, 0, 0, 1, 0, 4, 1, 2, 0, 0, 0, 1, 0, 4}));
+    mockMvc.perform(get("/panel/11"))
+        .andExpect(status().isBadRequest());
+  }
+}
@@ -0,0 +1,85 @@
+package com.example.elevator.demand;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.elevator.dto.DemandHeatmap;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.exception.InvalidDemandQueryException;
+import com.example.elevator.time.VirtualTimeSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CallStatisticsTest {
+
+  private static final long MINUTE = 60_000;
+
+  VirtualTimeSource clock;
+  CallStatistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    clock = new VirtualTimeSource();
+    statistics = new CallStatistics(5, 10, clock);
+  }
+
+  @Test
+  void sumsOrdersIntoBucketsPerFloor() {
+    statistics.record(1, OrderType.UP);
+    statistics.record(1, OrderType.UP);
+    clock.advanceTo(2 * MINUTE + 30_000);
+    statistics.record(3, OrderType.DOWN);
+    statistics.record(5, OrderType.NEUTRAL);
+    clock.advanceTo(3 * MINUTE);
+    statistics.record(3, OrderType.UP);
+
+    DemandHeatmap heatmap = statistics.heatmap(4, 2, null);
+
+    assertThat(heatmap.getStartMillis()).isEqualTo(0);
+    assertThat(heatmap.getCounts()).isEqualTo(new int[][] {
+        {2, 0, 0, 0, 0},
+        {0, 0, 2, 0, 1}});
+  }
+
+  @Test
+  void countsOnlyTheGivenOrderType() {
+    statistics.record(2, OrderType.UP);
+    statistics.record(2, OrderType.DOWN);
+    statistics.record(4, OrderType.NEUTRAL);
+
+    assertThat(statistics.heatmap(1, 1, OrderType.DOWN).getCounts())
+        .isEqualTo(new int[][] {{0, 1, 0, 0, 0}});
+  }
+
+  @Test
+  void forgetsMinutesOlderThanTheWindow() {
+    statistics.record(2, OrderType.UP);
+    clock.advanceTo(10 * MINUTE);
+    statistics.record(4, OrderType.UP);
+
+    // Minute 10 reuses the slot of minute 0
+    assertThat(statistics.heatmap(10, 10, null).getCounts())
+        .isEqualTo(new int[][] {{0, 0, 0, 1, 0}});
+    clock.advanceTo(25 * MINUTE);
+    assertThat(statistics.heatmap(10, 10, null).getCounts())
+        .isEqualTo(new int[][] {{0, 0, 0, 0, 0}});
+  }
+
+  @Test
+  void answersQueriesBeforeTheFirstOrder() {
+    clock.advanceTo(3 * MINUTE);
+
+    assertThat(statistics.heatmap(2, 1, null).getCounts())
+        .isEqualTo(new int[][] {{0, 0, 0, 0, 0}, {0, 0, 0, 0, 0}});
+  }
+
+  @Test
+  void rejectsInvalidQueries() {
+    assertThatThrownBy(() -> statistics.heatmap(11, 1, null))
+        .isInstanceOf(InvalidDemandQueryException.class)
+        .hasMessage("Minutes must be between 1 and 10");
+    assertThatThrownBy(() -> statistics.heatmap(5, 0, null))
+        .isInstanceOf(InvalidDemandQueryException.class)
+        .hasMessage("Bucket must be between 1 and 5 minutes");
+  }
+}
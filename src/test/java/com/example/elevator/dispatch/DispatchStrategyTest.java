@@ -0,0 +1,136 @@
+package com.example.elevator.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.LoadModel;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.VirtualTimeSource;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DispatchStrategyTest {
+
+  private static final int FLOOR_TIME = 1;
+  private static final int DOOR_OPENING_TIME = 3;
+
+  Elevator lowCar;
+  Elevator highCar;
+  List<Elevator> elevators;
+
+  @BeforeEach
+  void setUp() {
+    lowCar = new Elevator(0, 10, FLOOR_TIME, DOOR_OPENING_TIME, new VirtualTimeSource());
+    highCar = new Elevator(1, 10, FLOOR_TIME, DOOR_OPENING_TIME, new VirtualTimeSource());
+    lowCar.setCurrentFloor(2);
+    highCar.setCurrentFloor(9);
+    elevators = List.of(lowCar, highCar);
+  }
+
+  @Test
+  void nearestCar_givenIdleCars() {
+    DispatchStrategy strategy = new NearestCarDispatchStrategy();
+
+    assertThat(strategy.selectElevator(elevators, 3, OrderType.UP)).isEqualTo(lowCar);
+    assertThat(strategy.selectElevator(elevators, 7, OrderType.DOWN)).isEqualTo(highCar);
+  }
+
+  @Test
+  void nearestCar_givenCarMovingAway() {
+    highCar.setCurrentFloor(6);
+    highCar.setState(ElevatorState.GOING_UP);
+    DispatchStrategy strategy = new NearestCarDispatchStrategy();
+
+    assertThat(strategy.selectElevator(elevators, 5, OrderType.DOWN)).isEqualTo(lowCar);
+  }
+
+  @Test
+  void estimatedTime_givenBusyNearestCar() {
+    lowCar.setState(ElevatorState.GOING_UP);
+    IntStream.of(3, 4, 5, 6).forEach(floor -> lowCar.addOrder(floor, OrderType.NEUTRAL));
+    DispatchStrategy strategy = new EstimatedTimeDispatchStrategy(new EstimatedTimeCalculator());
+
+    // Low car needs 5 floors and 4 stops, high car only 3 floors
+    assertThat(strategy.selectElevator(elevators, 6, OrderType.UP)).isEqualTo(highCar);
+  }
+
+  @Test
+  void energySaving_givenCarPassingTheFloor() {
+    lowCar.setState(ElevatorState.GOING_UP);
+    lowCar.addOrder(8, OrderType.NEUTRAL);
+    EstimatedTimeCalculator calculator = new EstimatedTimeCalculator();
+
+    // The idle high car is a second closer, but the low car passes the floor anyway
+    assertThat(new EstimatedTimeDispatchStrategy(calculator)
+        .selectElevator(elevators, 6, OrderType.UP)).isEqualTo(highCar);
+    assertThat(new EnergySavingDispatchStrategy(calculator, 5)
+        .selectElevator(elevators, 6, OrderType.UP)).isEqualTo(lowCar);
+    assertThat(new EnergySavingDispatchStrategy(calculator, 0)
+        .selectElevator(elevators, 6, OrderType.UP)).isEqualTo(highCar);
+  }
+
+  @Test
+  void zoning_givenCallAboveLobby() {
+    DispatchStrategy strategy = new ZoningDispatchStrategy(new NearestCarDispatchStrategy());
+
+    assertThat(strategy.selectElevator(elevators, 2, OrderType.UP)).isEqualTo(lowCar);
+    assertThat(strategy.selectElevator(elevators, 6, OrderType.DOWN)).isEqualTo(lowCar);
+    assertThat(strategy.selectElevator(elevators, 7, OrderType.DOWN)).isEqualTo(highCar);
+    assertThat(strategy.selectElevator(elevators, 1, OrderType.UP)).isEqualTo(lowCar);
+  }
+
+  @Test
+  void zoning_givenFullCar() {
+    Elevator middleCar = new Elevator(1, 10, FLOOR_TIME, DOOR_OPENING_TIME,
+        new VirtualTimeSource());
+    Elevator fullCar = new Elevator(2, 10, FLOOR_TIME, DOOR_OPENING_TIME,
+        new VirtualTimeSource());
+    middleCar.setCurrentFloor(6);
+    fullCar.setCurrentFloor(9);
+    fullCar.setLoadModel(new LoadModel(1, 0));
+    fullCar.transfer(0, 1);
+    DispatchStrategy strategy = new ZoningDispatchStrategy(new NearestCarDispatchStrategy());
+    List<Elevator> cars = List.of(lowCar, middleCar, fullCar);
+
+    // The other zones stay with their cars, the full car's zone goes to the nearest car
+    assertThat(strategy.selectElevator(cars, 3, OrderType.UP)).isEqualTo(lowCar);
+    assertThat(strategy.selectElevator(cars, 6, OrderType.DOWN)).isEqualTo(middleCar);
+    assertThat(strategy.selectElevator(cars, 9, OrderType.DOWN)).isEqualTo(middleCar);
+  }
+
+  @Test
+  void destination_groupsCommonDestinations() {
+    ElevatorBank bank = new ElevatorBank(2, 10, FLOOR_TIME, DOOR_OPENING_TIME,
+        new NearestCarDispatchStrategy(), new VirtualTimeSource());
+    DestinationDispatcher dispatcher = new DestinationDispatcher(bank,
+        new EstimatedTimeCalculator());
+
+    Elevator toEight = dispatcher.assign(1, 8);
+
+    assertThat(dispatcher.assign(1, 8)).isEqualTo(toEight);
+    // Another stop would delay both passengers more than the other car takes to come
+    assertThat(dispatcher.assign(1, 3)).isNotEqualTo(toEight);
+    assertThat(toEight.getOrders().contains(1, OrderType.UP)).isTrue();
+  }
+
+  @Test
+  void destination_givenPassengerPickedUp() {
+    ElevatorBank bank = new ElevatorBank(1, 10, FLOOR_TIME, DOOR_OPENING_TIME,
+        new NearestCarDispatchStrategy(), new VirtualTimeSource());
+    DestinationDispatcher dispatcher = new DestinationDispatcher(bank,
+        new EstimatedTimeCalculator());
+    Elevator car = dispatcher.assign(1, 8);
+    assertThat(car.getOrders().contains(8, OrderType.NEUTRAL)).isFalse();
+
+    // Opens the door on the origin floor
+    car.step();
+
+    assertThat(car.getOrders().contains(1, OrderType.UP)).isFalse();
+    assertThat(car.getOrders().contains(8, OrderType.NEUTRAL)).isTrue();
+  }
+}
@@ -1,36 +1,38 @@
 package com.example.elevator.elevator;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.dispatch.NearestCarDispatchStrategy;
+import com.example.elevator.time.SystemTimeSource;
+import com.example.elevator.time.VirtualTimeSource;
 import java.time.Duration;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 import org.assertj.core.api.SoftAssertions;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
-@ActiveProfiles("test")
 class ElevatorTest {
 
-  @Autowired
   Elevator elevator;
 
   @BeforeEach
   void setUp() {
-    elevator.setState(ElevatorState.IDLE);
-    elevator.setOrdersUp(new HashSet<>(Set.of(1, 5, 8)));
-    elevator.setOrdersDown(new HashSet<>(Set.of(3, 5, 10)));
-    elevator.setOrdersNeutral(new HashSet<>(Set.of(2, 3, 8)));
+    elevator = new Elevator(0, 10, 0, 0, new SystemTimeSource());
+    IntStream.of(1, 5, 8).forEach(floor -> elevator.addOrder(floor, OrderType.UP));
+    IntStream.of(3, 5, 10).forEach(floor -> elevator.addOrder(floor, OrderType.DOWN));
+    IntStream.of(2, 3, 8).forEach(floor -> elevator.addOrder(floor, OrderType.NEUTRAL));
   }
 
   @Test
   void moveFromFirstFloorWithManyStops() throws InterruptedException {
     elevator.setCurrentFloor(1);
 
-    int lowestOrderGoingDown = elevator.getOrdersDown().stream()
+    int lowestOrderGoingDown = elevator.getOrders().get(OrderType.DOWN).stream()
         .reduce(Integer::min)
         .orElseThrow(RuntimeException::new);
 
@@ -42,9 +44,9 @@ class ElevatorTest {
 
     SoftAssertions softly = new SoftAssertions();
     softly.assertThat(elevator.getCurrentFloor()).isEqualTo(lowestOrderGoingDown);
-    softly.assertThat(elevator.getOrdersDown()).isEmpty();
-    softly.assertThat(elevator.getOrdersUp()).isEmpty();
-    softly.assertThat(elevator.getOrdersNeutral()).isEmpty();
+    softly.assertThat(elevator.getOrders().get(OrderType.DOWN).isEmpty()).isTrue();
+    softly.assertThat(elevator.getOrders().get(OrderType.UP).isEmpty()).isTrue();
+    softly.assertThat(elevator.getOrders().get(OrderType.NEUTRAL).isEmpty()).isTrue();
     softly.assertAll();
   }
 
@@ -52,7 +54,7 @@ class ElevatorTest {
   void moveFromTopFloorWithManyStops() throws InterruptedException {
     elevator.setCurrentFloor(10);
 
-    int highestOrderGoingUp = elevator.getOrdersUp().stream()
+    int highestOrderGoingUp = elevator.getOrders().get(OrderType.UP).stream()
         .reduce(Integer::max)
         .orElseThrow(RuntimeException::new);
 
@@ -64,9 +66,9 @@ class ElevatorTest {
 
     SoftAssertions softly = new SoftAssertions();
     softly.assertThat(elevator.getCurrentFloor()).isEqualTo(highestOrderGoingUp);
-    softly.assertThat(elevator.getOrdersDown()).isEmpty();
-    softly.assertThat(elevator.getOrdersUp()).isEmpty();
-    softly.assertThat(elevator.getOrdersNeutral()).isEmpty();
+    softly.assertThat(elevator.getOrders().get(OrderType.DOWN).isEmpty()).isTrue();
+    softly.assertThat(elevator.getOrders().get(OrderType.UP).isEmpty()).isTrue();
+    softly.assertThat(elevator.getOrders().get(OrderType.NEUTRAL).isEmpty()).isTrue();
     softly.assertAll();
   }
 
@@ -75,7 +77,7 @@ class ElevatorTest {
     elevator.setCurrentFloor(5);
     elevator.setState(ElevatorState.GOING_UP);
 
-    int highestOrderUpUnderCurrentFloor = elevator.getOrdersUp().stream()
+    int highestOrderUpUnderCurrentFloor = elevator.getOrders().get(OrderType.UP).stream()
         .filter(o -> o < elevator.getCurrentFloor())
         .reduce(Integer::max)
         .orElseThrow(RuntimeException::new);
@@ -88,9 +90,9 @@ class ElevatorTest {
 
     SoftAssertions softly = new SoftAssertions();
     softly.assertThat(elevator.getCurrentFloor()).isEqualTo(highestOrderUpUnderCurrentFloor);
-    softly.assertThat(elevator.getOrdersDown()).isEmpty();
-    softly.assertThat(elevator.getOrdersUp()).isEmpty();
-    softly.assertThat(elevator.getOrdersNeutral()).isEmpty();
+    softly.assertThat(elevator.getOrders().get(OrderType.DOWN).isEmpty()).isTrue();
+    softly.assertThat(elevator.getOrders().get(OrderType.UP).isEmpty()).isTrue();
+    softly.assertThat(elevator.getOrders().get(OrderType.NEUTRAL).isEmpty()).isTrue();
     softly.assertAll();
   }
 
@@ -99,7 +101,7 @@ class ElevatorTest {
     elevator.setCurrentFloor(5);
     elevator.setState(ElevatorState.GOING_DOWN);
 
-    int lowestOrderGoingDownOverCurrentFloor = elevator.getOrdersDown().stream()
+    int lowestOrderGoingDownOverCurrentFloor = elevator.getOrders().get(OrderType.DOWN).stream()
         .filter(o -> o > elevator.getCurrentFloor())
         .reduce(Integer::min)
         .orElseThrow(RuntimeException::new);
@@ -112,9 +114,183 @@ class ElevatorTest {
 
     SoftAssertions softly = new SoftAssertions();
     softly.assertThat(elevator.getCurrentFloor()).isEqualTo(lowestOrderGoingDownOverCurrentFloor);
-    softly.assertThat(elevator.getOrdersDown()).isEmpty();
-    softly.assertThat(elevator.getOrdersUp()).isEmpty();
-    softly.assertThat(elevator.getOrdersNeutral()).isEmpty();
+    softly.assertThat(elevator.getOrders().get(OrderType.DOWN).isEmpty()).isTrue();
+    softly.assertThat(elevator.getOrders().get(OrderType.UP).isEmpty()).isTrue();
+    softly.assertThat(elevator.getOrders().get(OrderType.NEUTRAL).isEmpty()).isTrue();
     softly.assertAll();
   }
-}
\ No newline at end of file
+
+  @Test
+  void followsPlannedRouteToNearestOrdersFirst() throws InterruptedException {
+    elevator.clearOrders();
+    elevator.setCurrentFloor(6);
+    IntStream.of(4, 9).forEach(floor -> elevator.addOrder(floor, OrderType.NEUTRAL));
+    List<Integer> doorsOpened = new ArrayList<>();
+    elevator.addListener(new ElevatorListener() {
+      @Override
+      public void onDoorOpened(Elevator elevator, int floor) {
+        doorsOpened.add(floor);
+      }
+    });
+
+    assertThat(elevator.getPlannedStops()).containsExactly(4, 9);
+    elevator.move();
+
+    assertThat(doorsOpened).containsExactly(4, 9);
+    assertThat(elevator.getPlannedStops()).isEmpty();
+  }
+
+  @Test
+  void fullCarSkipsHallCallsAndHoldsDoorForTransfers() {
+    Elevator car = new Elevator(1, 10, 1, 3, new SystemTimeSource());
+    car.setLoadModel(new LoadModel(2, 1000));
+    car.addOrder(6, OrderType.NEUTRAL);
+    car.addOrder(3, OrderType.UP);
+    car.transfer(0, 2);
+
+    assertThat(car.isFull()).isTrue();
+    assertThat(car.getPlannedStops()).containsExactly(6);
+    // Two passengers boarded on floor 1, then the car leaves
+    assertThat(car.step()).isEqualTo(2000);
+    while (car.getCurrentFloor() < 6) {
+      car.step();
+    }
+    assertThat(car.getOrders().contains(3, OrderType.UP)).isTrue();
+
+    car.transfer(2, 0);
+
+    assertThat(car.isFull()).isFalse();
+    assertThat(car.getPlannedStops()).containsExactly(3);
+    assertThat(car.step()).isEqualTo(2000);
+  }
+
+  @Test
+  void notifiesRemovedOrdersOnceAfterRemovingThem() {
+    Elevator car = new Elevator(1, 10, 1, 3, new VirtualTimeSource());
+    List<Boolean> stillOrdered = new ArrayList<>();
+    car.addListener(new ElevatorListener() {
+      @Override
+      public void onOrderServed(Elevator elevator, int floor, OrderType orderType) {
+        stillOrdered.add(elevator.getOrders().contains(floor, orderType));
+      }
+
+      @Override
+      public void onOrderRemoved(Elevator elevator, int floor, OrderType orderType) {
+        stillOrdered.add(elevator.getOrders().contains(floor, orderType));
+      }
+    });
+    car.addOrder(1, OrderType.UP);
+    car.addOrder(4, OrderType.NEUTRAL);
+
+    car.step();
+    assertThat(car.removeOrder(4, OrderType.NEUTRAL)).isTrue();
+    assertThat(car.removeOrder(4, OrderType.NEUTRAL)).isFalse();
+
+    assertThat(stillOrdered).containsExactly(false, false);
+    assertThat(car.getOrders().isEmpty()).isTrue();
+  }
+
+  @Test
+  void stalledListenerHoldsUpNeitherStepNorBreak() throws InterruptedException {
+    Elevator car = new Elevator(1, 10, 1, 3, new VirtualTimeSource());
+    CountDownLatch stalled = new CountDownLatch(1);
+    CountDownLatch released = new CountDownLatch(1);
+    car.addListener(new ElevatorListener() {
+      @Override
+      public void onOrderServed(Elevator elevator, int floor, OrderType orderType) {
+        // Like a journal waiting for a free segment
+        stalled.countDown();
+        try {
+          released.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    car.addOrder(1, OrderType.NEUTRAL);
+    car.addOrder(5, OrderType.NEUTRAL);
+    Thread stepping = new Thread(car::step);
+    stepping.start();
+    assertThat(stalled.await(1, TimeUnit.SECONDS)).isTrue();
+
+    long startNanos = System.nanoTime();
+    car.emergencyBreak();
+    assertThat(car.step()).isEqualTo(Elevator.NO_ACTION);
+
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)).isLessThan(100);
+    assertThat(car.getState()).isEqualTo(ElevatorState.EMERGENCY_BREAK);
+    released.countDown();
+    stepping.join(1000);
+  }
+
+  @Test
+  void bankHandsHallCallsOfFullCarToCarsWithRoom() {
+    ElevatorBank bank = new ElevatorBank(2, 10, 1, 3, new NearestCarDispatchStrategy(),
+        new VirtualTimeSource());
+    bank.setLoadModel(new LoadModel(2, 1000));
+    Elevator full = bank.getElevator(0);
+    full.addOrder(6, OrderType.NEUTRAL);
+    full.addOrder(3, OrderType.UP);
+    full.addOrder(8, OrderType.DOWN);
+
+    full.transfer(0, 2);
+
+    assertThat(full.getOrders().size()).isEqualTo(1);
+    assertThat(bank.getElevator(1).getOrders().contains(3, OrderType.UP)).isTrue();
+    assertThat(bank.getElevator(1).getOrders().contains(8, OrderType.DOWN)).isTrue();
+    // The full car is nearest, but has no room
+    assertThat(bank.assign(1, OrderType.UP)).isEqualTo(bank.getElevator(1));
+  }
+
+  @Test
+  void energyMeterCountsTravelStopsAndStandby() throws InterruptedException {
+    VirtualTimeSource clock = new VirtualTimeSource();
+    Elevator car = new Elevator(1, 10, 1, 3, clock);
+    car.addOrder(4, OrderType.NEUTRAL);
+    car.addOrder(6, OrderType.NEUTRAL);
+    car.move();
+    clock.advanceTo(clock.currentTimeMillis() + 60_000);
+    car.addOrder(2, OrderType.NEUTRAL);
+    car.move();
+
+    EnergyMeter meter = car.getEnergyMeter();
+    assertThat(meter.getFloors()).isEqualTo(9);
+    assertThat(meter.getStops()).isEqualTo(3);
+    assertThat(meter.getDoorCycles()).isEqualTo(3);
+    assertThat(meter.getReversals()).isEqualTo(1);
+    long standbyMillis = meter.getStandbyMillis(clock.currentTimeMillis());
+    assertThat(standbyMillis).isGreaterThanOrEqualTo(60_000);
+    assertThat(car.getEnergyJoules())
+        .isEqualTo(EnergyModel.DEFAULT.joules(9, 3, 3, standbyMillis));
+  }
+
+  @Test
+  void emergencyBreakInterruptsBlockingMove() throws InterruptedException {
+    Elevator car = new Elevator(1, 10, 10, 3, new SystemTimeSource());
+    car.addOrder(10, OrderType.NEUTRAL);
+    Thread mover = new Thread(() -> {
+      try {
+        car.move();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    mover.start();
+    Awaitility.await().atMost(Duration.ofSeconds(1))
+        .until(() -> ElevatorState.GOING_UP.equals(car.getState()));
+
+    long startNanos = System.nanoTime();
+    car.emergencyBreak();
+    mover.join(1000);
+    long stopMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+    // Without the interrupt the mover would sleep out the ten seconds to the next floor
+    assertThat(mover.isAlive()).isFalse();
+    assertThat(stopMillis).isLessThan(100);
+    assertThat(car.getCurrentFloor()).isEqualTo(1);
+
+    assertThat(car.resume()).isTrue();
+    assertThat(car.getState()).isEqualTo(ElevatorState.IDLE);
+    assertThat(car.resume()).isFalse();
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.elevator.elevator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class FloorBitSetTest {
+
+  @Test
+  void addAndRemoveAcrossWords() {
+    FloorBitSet floors = new FloorBitSet(130);
+
+    assertThat(floors.add(1)).isTrue();
+    assertThat(floors.add(64)).isTrue();
+    assertThat(floors.add(130)).isTrue();
+    assertThat(floors.add(64)).isFalse();
+
+    assertThat(floors.stream().toArray()).containsExactly(1, 64, 130);
+    assertThat(floors.remove(64)).isTrue();
+    assertThat(floors.remove(64)).isFalse();
+    assertThat(floors.contains(130)).isTrue();
+
+    floors.clear();
+    assertThat(floors.isEmpty()).isTrue();
+  }
+
+  @Test
+  void concurrentAddAndRemoveLoseNoOrders() throws InterruptedException {
+    int totalFloors = 120;
+    FloorBitSet floors = new FloorBitSet(totalFloors);
+    AtomicInteger added = new AtomicInteger();
+    AtomicInteger removed = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    for (int thread = 0; thread < 8; thread++) {
+      boolean adding = thread % 2 == 0;
+      executor.execute(() -> {
+        for (int i = 0; i < 100_000; i++) {
+          int floor = 1 + i % totalFloors;
+          if (adding ? floors.add(floor) : floors.remove(floor)) {
+            (adding ? added : removed).incrementAndGet();
+          }
+        }
+      });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    // Every successful add is either still in the set or matched by exactly one remove
+    assertThat(added.get() - removed.get()).isEqualTo((int) floors.stream().count());
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.elevator.elevator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class FloorOrderIndexTest {
+
+  @Test
+  void highestAndLowestAcrossOrderTypes() {
+    FloorOrderIndex orders = new FloorOrderIndex(120);
+
+    assertThat(orders.highest()).isEqualTo(FloorOrderIndex.NONE);
+    assertThat(orders.lowest()).isEqualTo(FloorOrderIndex.NONE);
+
+    orders.add(70, OrderType.UP);
+    orders.add(3, OrderType.DOWN);
+    orders.add(118, OrderType.NEUTRAL);
+
+    assertThat(orders.highest()).isEqualTo(118);
+    assertThat(orders.lowest()).isEqualTo(3);
+    assertThat(orders.hasOrdersAbove(118)).isFalse();
+    assertThat(orders.hasOrdersAbove(117)).isTrue();
+    assertThat(orders.hasOrdersBelow(3)).isFalse();
+    assertThat(orders.hasOrdersBelow(4)).isTrue();
+  }
+
+  @Test
+  void countInRangeAcrossWordBoundaries() {
+    FloorOrderIndex orders = new FloorOrderIndex(120);
+    for (int floor = 60; floor <= 70; floor++) {
+      orders.add(floor, OrderType.NEUTRAL);
+    }
+    orders.add(64, OrderType.UP);
+
+    assertThat(orders.countInRange(OrderType.NEUTRAL, 1, 120)).isEqualTo(11);
+    assertThat(orders.countInRange(OrderType.NEUTRAL, 63, 64)).isEqualTo(2);
+    assertThat(orders.countInRange(OrderType.NEUTRAL, 65, 65)).isEqualTo(1);
+    assertThat(orders.countInRange(OrderType.NEUTRAL, 71, 120)).isZero();
+    assertThat(orders.countInRange(OrderType.NEUTRAL, 70, 60)).isZero();
+    assertThat(orders.countInRange(OrderType.UP, 1, 63)).isZero();
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.elevator.elevator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LookRoutePlannerTest {
+
+  FloorOrderIndex orders;
+  RoutePlanner planner = new LookRoutePlanner();
+
+  @BeforeEach
+  void setUp() {
+    orders = new FloorOrderIndex(10);
+    orders.add(1, OrderType.UP);
+    orders.add(5, OrderType.UP);
+    orders.add(8, OrderType.UP);
+    orders.add(3, OrderType.DOWN);
+    orders.add(5, OrderType.DOWN);
+    orders.add(10, OrderType.DOWN);
+    orders.add(2, OrderType.NEUTRAL);
+    orders.add(3, OrderType.NEUTRAL);
+    orders.add(8, OrderType.NEUTRAL);
+  }
+
+  @Test
+  void goingUpSweepsUpThenDownThenUpForCallsBehind() {
+    Route route = planner.plan(5, ElevatorState.GOING_UP, orders);
+
+    assertThat(route.floors()).containsExactly(5, 8, 10, 5, 3, 2, 1);
+    assertThat(route.serves(0, OrderType.UP)).isTrue();
+    assertThat(route.serves(0, OrderType.DOWN)).isFalse();
+    assertThat(route.serves(2, OrderType.DOWN)).isTrue();
+    assertThat(route.serves(3, OrderType.DOWN)).isTrue();
+    assertThat(route.serves(6, OrderType.UP)).isTrue();
+  }
+
+  @Test
+  void goingDownMirrorsGoingUp() {
+    Route route = planner.plan(5, ElevatorState.GOING_DOWN, orders);
+
+    assertThat(route.floors()).containsExactly(5, 3, 2, 1, 5, 8, 10);
+  }
+
+  @Test
+  void leavesUpCallsBelowTheStartForTheLastSweep() {
+    orders.clear();
+    orders.add(2, OrderType.UP);
+    orders.add(4, OrderType.UP);
+    orders.add(1, OrderType.DOWN);
+    orders.add(9, OrderType.NEUTRAL);
+
+    Route route = planner.plan(6, ElevatorState.GOING_UP, orders);
+
+    assertThat(route.floors()).containsExactly(9, 1, 2, 4);
+  }
+
+  @Test
+  void idleCarHeadsForNearestOrder() {
+    orders.clear();
+    orders.add(4, OrderType.NEUTRAL);
+    orders.add(9, OrderType.NEUTRAL);
+
+    assertThat(planner.plan(6, ElevatorState.IDLE, orders).floors()).containsExactly(4, 9);
+    assertThat(planner.plan(7, ElevatorState.IDLE, orders).floors()).containsExactly(9, 4);
+  }
+
+  @Test
+  void idleCarServesHallCallOnItsFloorInItsDirection() {
+    orders.clear();
+    orders.add(6, OrderType.DOWN);
+    orders.add(7, OrderType.NEUTRAL);
+    orders.add(2, OrderType.NEUTRAL);
+
+    Route route = planner.plan(6, ElevatorState.IDLE, orders);
+
+    assertThat(route.floors()).containsExactly(6, 2, 7);
+    assertThat(route.serves(0, OrderType.DOWN)).isTrue();
+  }
+}
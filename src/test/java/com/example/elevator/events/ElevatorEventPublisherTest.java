@@ -0,0 +1,101 @@
+package com.example.elevator.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.dispatch.NearestCarDispatchStrategy;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.time.VirtualTimeSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class ElevatorEventPublisherTest {
+
+  ElevatorBank bank;
+  ElevatorEventPublisher publisher;
+
+  @BeforeEach
+  void setUp() {
+    bank = new ElevatorBank(1, 200, 0, 0, new NearestCarDispatchStrategy(),
+        new VirtualTimeSource());
+    publisher = new ElevatorEventPublisher(bank, new VirtualTimeSource(), 1, 0);
+    publisher.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    publisher.shutdown();
+  }
+
+  @Test
+  void slowSubscriberOnlyReceivesLatestEvent() {
+    CapturingEmitter emitter = new CapturingEmitter();
+    publisher.subscribe(emitter);
+    Elevator elevator = bank.getElevator(0);
+
+    // The first flush is stuck sending while the car passes many floors
+    for (int floor = 2; floor <= 200; floor++) {
+      publisher.onFloorReached(elevator, floor);
+    }
+    emitter.gate.countDown();
+
+    Awaitility.await().atMost(Duration.ofSeconds(1))
+        .until(() -> emitter.events.stream().anyMatch(event -> event.getFloor() == 200));
+    assertThat(emitter.events)
+        .filteredOn(event -> event.getType() == ElevatorEventType.FLOOR_REACHED)
+        .hasSizeLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void neverFlushesOneSubscriberFromTwoThreads() {
+    publisher.shutdown();
+    publisher = new ElevatorEventPublisher(bank, new VirtualTimeSource(), 2, 0);
+    publisher.start();
+    CapturingEmitter emitter = new CapturingEmitter();
+    publisher.subscribe(emitter);
+    Elevator elevator = bank.getElevator(0);
+
+    // Events stored while the first flush is stuck sending must not start a second flush
+    for (int floor = 2; floor <= 200; floor++) {
+      publisher.onFloorReached(elevator, floor);
+    }
+    emitter.gate.countDown();
+
+    Awaitility.await().atMost(Duration.ofSeconds(1))
+        .until(() -> emitter.events.stream().anyMatch(event -> event.getFloor() == 200));
+    assertThat(emitter.maxSending.get()).isEqualTo(1);
+  }
+
+  static class CapturingEmitter extends SseEmitter {
+
+    final CountDownLatch gate = new CountDownLatch(1);
+    final List<ElevatorEvent> events = new CopyOnWriteArrayList<>();
+    final AtomicInteger sending = new AtomicInteger();
+    final AtomicInteger maxSending = new AtomicInteger();
+
+    @Override
+    public void send(SseEventBuilder builder) {
+      maxSending.accumulateAndGet(sending.incrementAndGet(), Math::max);
+      try {
+        gate.await(1, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      builder.build().stream()
+          .map(DataWithMediaType::getData)
+          .filter(ElevatorEvent.class::isInstance)
+          .map(ElevatorEvent.class::cast)
+          .forEach(events::add);
+      sending.decrementAndGet();
+    }
+  }
+}
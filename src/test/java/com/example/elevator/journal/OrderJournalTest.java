@@ -0,0 +1,163 @@
+package com.example.elevator.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.dispatch.NearestCarDispatchStrategy;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorListener;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.simulation.Simulation;
+import com.example.elevator.time.VirtualTimeSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OrderJournalTest {
+
+  private static final int FLOOR_TIME = 1;
+  private static final int DOOR_OPENING_TIME = 3;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void restartResumesFloorsAndPendingOrders() throws IOException {
+    VirtualTimeSource clock = new VirtualTimeSource();
+    ElevatorBank bank = bank(2, clock);
+    startJournal(bank, 1 << 16);
+    Simulation simulation = new Simulation(bank, clock);
+    simulation.addOrder(0, 3, OrderType.NEUTRAL, 0);
+    simulation.addOrder(0, 8, OrderType.UP, 0);
+    simulation.addOrder(0, 6, OrderType.DOWN, 1);
+
+    // Car 0 served floor 3 and is on its way to floor 8
+    simulation.runUntil(6_000);
+
+    // Crash: the journal is not closed
+    ElevatorBank restarted = bank(2, new VirtualTimeSource());
+    startJournal(restarted, 1 << 16);
+
+    assertSameState(restarted, bank);
+    assertThat(restarted.getElevator(0).getOrders().contains(3, OrderType.NEUTRAL)).isFalse();
+    assertThat(restarted.getElevator(0).getOrders().contains(8, OrderType.UP)).isTrue();
+  }
+
+  @Test
+  void recoversAcrossSnapshotsWhenSegmentIsFull() throws IOException {
+    ElevatorBank bank = bank(1, new VirtualTimeSource());
+    // Four records per segment
+    startJournal(bank, 4 * OrderJournal.RECORD_BYTES);
+    for (int floor = 2; floor <= 10; floor++) {
+      bank.getElevator(0).addOrder(floor, OrderType.NEUTRAL);
+    }
+
+    ElevatorBank restarted = bank(1, new VirtualTimeSource());
+    startJournal(restarted, 4 * OrderJournal.RECORD_BYTES);
+
+    assertSameState(restarted, bank);
+    assertThat(restarted.getElevator(0).getOrders().size()).isEqualTo(9);
+  }
+
+  @Test
+  void recoversAfterManySegmentSwitches() throws IOException {
+    VirtualTimeSource clock = new VirtualTimeSource();
+    ElevatorBank bank = bank(2, clock);
+    startJournal(bank, 4 * OrderJournal.RECORD_BYTES);
+    Simulation simulation = new Simulation(bank, clock);
+    for (int i = 0; i < 40; i++) {
+      simulation.addOrder(i * 2_000L, 2 + i % 9, i % 2 == 0 ? OrderType.UP : OrderType.NEUTRAL,
+          i % 2);
+    }
+    simulation.runUntil(50_000);
+
+    ElevatorBank restarted = bank(2, new VirtualTimeSource());
+    startJournal(restarted, 4 * OrderJournal.RECORD_BYTES);
+
+    assertSameState(restarted, bank);
+  }
+
+  @Test
+  void recoversEmergencyBreak() throws IOException {
+    ElevatorBank bank = bank(1, new VirtualTimeSource());
+    OrderJournal journal = startJournal(bank, 1 << 16);
+    bank.getElevator(0).addOrder(5, OrderType.NEUTRAL);
+    bank.getElevator(0).emergencyBreak();
+    journal.close();
+
+    ElevatorBank restarted = bank(1, new VirtualTimeSource());
+    startJournal(restarted, 1 << 16);
+
+    assertThat(restarted.getElevator(0).getState()).isEqualTo(ElevatorState.EMERGENCY_BREAK);
+    assertThat(restarted.getElevator(0).getOrders().isEmpty()).isTrue();
+  }
+
+  @Test
+  void recoversReleasedEmergencyBreak() throws IOException {
+    ElevatorBank bank = bank(1, new VirtualTimeSource());
+    startJournal(bank, 1 << 16);
+    bank.getElevator(0).emergencyBreak();
+    bank.getElevator(0).resume();
+
+    ElevatorBank restarted = bank(1, new VirtualTimeSource());
+    startJournal(restarted, 1 << 16);
+
+    assertThat(restarted.getElevator(0).getState()).isEqualTo(ElevatorState.IDLE);
+  }
+
+  @Test
+  void keepsOrderAddedAgainBeforeItsRemovalIsJournaled() throws IOException {
+    ElevatorBank bank = bank(1, new VirtualTimeSource());
+    // Runs before the journal hears of the removal
+    bank.getElevator(0).addListener(new ElevatorListener() {
+      @Override
+      public void onOrderRemoved(Elevator elevator, int floor, OrderType orderType) {
+        elevator.addOrder(floor, orderType);
+      }
+    });
+    startJournal(bank, 1 << 16);
+    bank.getElevator(0).addOrder(5, OrderType.NEUTRAL);
+    bank.getElevator(0).removeOrder(5, OrderType.NEUTRAL);
+
+    ElevatorBank restarted = bank(1, new VirtualTimeSource());
+    startJournal(restarted, 1 << 16);
+
+    assertThat(restarted.getElevator(0).getOrders().contains(5, OrderType.NEUTRAL)).isTrue();
+  }
+
+  @Test
+  void ignoresJournalOfDifferentBank() throws IOException {
+    ElevatorBank bank = bank(1, new VirtualTimeSource());
+    startJournal(bank, 1 << 16);
+    bank.getElevator(0).addOrder(5, OrderType.NEUTRAL);
+
+    ElevatorBank restarted = bank(2, new VirtualTimeSource());
+    startJournal(restarted, 1 << 16);
+
+    assertThat(restarted.getElevator(0).getOrders().isEmpty()).isTrue();
+  }
+
+  private OrderJournal startJournal(ElevatorBank bank, int segmentBytes) throws IOException {
+    OrderJournal journal = new OrderJournal(bank, directory, segmentBytes, 0);
+    journal.start();
+    return journal;
+  }
+
+  private static ElevatorBank bank(int cars, VirtualTimeSource clock) {
+    return new ElevatorBank(cars, 10, FLOOR_TIME, DOOR_OPENING_TIME,
+        new NearestCarDispatchStrategy(), clock);
+  }
+
+  private static void assertSameState(ElevatorBank actual, ElevatorBank expected) {
+    for (Elevator elevator : expected.getElevators()) {
+      Elevator recovered = actual.getElevator(elevator.getId());
+      assertThat(recovered.getCurrentFloor()).isEqualTo(elevator.getCurrentFloor());
+      for (OrderType orderType : OrderType.values()) {
+        assertThat(recovered.getOrders().get(orderType).stream())
+            .containsExactlyElementsOf(elevator.getOrders().get(orderType).stream()::iterator);
+      }
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.elevator.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.dispatch.NearestCarDispatchStrategy;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.simulation.Simulation;
+import com.example.elevator.time.VirtualTimeSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ElevatorMetricsTest {
+
+  private static final int FLOOR_TIME = 1;
+  private static final int DOOR_OPENING_TIME = 3;
+
+  ElevatorBank bank;
+  MeterRegistry registry;
+  Simulation simulation;
+
+  @BeforeEach
+  void setUp() {
+    VirtualTimeSource clock = new VirtualTimeSource();
+    bank = new ElevatorBank(1, 10, FLOOR_TIME, DOOR_OPENING_TIME,
+        new NearestCarDispatchStrategy(), clock);
+    registry = new SimpleMeterRegistry();
+    new ElevatorMetrics(bank, clock, new EstimatedTimeCalculator(), registry).start();
+    simulation = new Simulation(bank, clock);
+  }
+
+  @Test
+  void recordsWaitTravelAndDoorCycles() {
+    simulation.addOrder(0, 5, OrderType.UP);
+    simulation.addOrder(2_000, 8, OrderType.NEUTRAL, 0);
+
+    simulation.run();
+
+    assertThat(registry.counter("elevator.orders", "type", "UP").count()).isEqualTo(1);
+    assertThat(registry.counter("elevator.orders", "type", "NEUTRAL").count()).isEqualTo(1);
+    assertThat(registry.counter("elevator.door.cycles").count()).isEqualTo(2);
+    // Four floors to the hall call
+    assertThat(registry.timer("elevator.hallcall.wait").totalTime(TimeUnit.SECONDS))
+        .isEqualTo(4 * FLOOR_TIME);
+    // Ordered on floor 3, five more floors and the door stop on floor 5
+    assertThat(registry.timer("elevator.carcall.travel").totalTime(TimeUnit.SECONDS))
+        .isEqualTo(5 * FLOOR_TIME + DOOR_OPENING_TIME);
+    assertThat(registry.gauge("elevator.orders.pending", 0)).isZero();
+  }
+
+  @Test
+  void recordsEstimateErrorOfExactPrediction() {
+    simulation.addOrder(0, 7, OrderType.DOWN);
+
+    simulation.run();
+
+    assertThat(registry.summary("elevator.eta.error", "direction", "late").count()).isEqualTo(1);
+    assertThat(registry.summary("elevator.eta.error", "direction", "late").totalAmount())
+        .isZero();
+  }
+
+  @Test
+  void addingOrdersComputesNoEstimates() {
+    Elevator elevator = bank.getElevator(0);
+    elevator.addOrder(7, OrderType.DOWN);
+
+    assertThat(elevator.getEstimatedTimes().get(elevator.getVersion())).isNull();
+    assertThat(registry.counter("elevator.orders", "type", "DOWN").count()).isEqualTo(1);
+  }
+
+  @Test
+  void forgetsWithdrawnOrders() {
+    Elevator elevator = bank.getElevator(0);
+    elevator.addOrder(5, OrderType.NEUTRAL);
+    elevator.removeOrder(5, OrderType.NEUTRAL);
+    simulation.addOrder(2_000, 5, OrderType.NEUTRAL, 0);
+
+    simulation.run();
+
+    // Only the order added again is timed, from when it was added
+    assertThat(registry.timer("elevator.carcall.travel").count()).isEqualTo(1);
+    assertThat(registry.timer("elevator.carcall.travel").totalTime(TimeUnit.SECONDS))
+        .isEqualTo(4 * FLOOR_TIME);
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.elevator.panel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.time.VirtualTimeSource;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PanelEncoderTest {
+
+  Elevator[] cars;
+
+  @BeforeEach
+  void setUp() {
+    VirtualTimeSource timeSource = new VirtualTimeSource();
+    cars = new Elevator[] {
+        new Elevator(0, 300, 1, 3, timeSource),
+        new Elevator(1, 300, 1, 3, timeSource)
+    };
+    cars[0].setCurrentFloor(260);
+    cars[0].setState(ElevatorState.GOING_DOWN);
+    cars[1].setState(ElevatorState.EMERGENCY_BREAK);
+  }
+
+  @Test
+  void encodesFixedBinaryRecords() {
+    byte[] encoded = PanelEncoder.binary(cars, new int[] {1234, 70_000});
+
+    assertThat(encoded).hasSize(2 * PanelEncoder.RECORD_BYTES);
+    ByteBuffer records = ByteBuffer.wrap(encoded);
+    assertThat(records.get()).isEqualTo((byte) 0);
+    assertThat(records.get()).isEqualTo((byte) ElevatorState.GOING_DOWN.ordinal());
+    assertThat(records.get()).isEqualTo((byte) -1);
+    assertThat(records.get()).isZero();
+    assertThat(records.getShort() & 0xFFFF).isEqualTo(260);
+    assertThat(records.getShort() & 0xFFFF).isEqualTo(1234);
+
+    assertThat(records.get()).isEqualTo((byte) 1);
+    assertThat(records.get()).isEqualTo((byte) ElevatorState.EMERGENCY_BREAK.ordinal());
+    assertThat(records.get()).isZero();
+    assertThat(records.get()).isZero();
+    assertThat(records.getShort() & 0xFFFF).isEqualTo(1);
+    assertThat(records.getShort() & 0xFFFF).isEqualTo(PanelEncoder.UNKNOWN_ETA);
+  }
+
+  @Test
+  void encodesCompactJson() {
+    String one = new String(PanelEncoder.json(new Elevator[] {cars[0]}, new int[] {0}, false),
+        StandardCharsets.US_ASCII);
+    String all = new String(PanelEncoder.json(cars, new int[] {12, Integer.MAX_VALUE}, true),
+        StandardCharsets.US_ASCII);
+
+    assertThat(one).isEqualTo(
+        "{\"car\":0,\"state\":\"GOING_DOWN\",\"floor\":260,\"direction\":-1,\"eta\":0}");
+    assertThat(all).isEqualTo("["
+        + "{\"car\":0,\"state\":\"GOING_DOWN\",\"floor\":260,\"direction\":-1,\"eta\":12},"
+        + "{\"car\":1,\"state\":\"EMERGENCY_BREAK\",\"floor\":1,\"direction\":0,"
+        + "\"eta\":2147483647}]");
+  }
+}
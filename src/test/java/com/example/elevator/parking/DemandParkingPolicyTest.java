@@ -0,0 +1,95 @@
+package com.example.elevator.parking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.example.elevator.dispatch.NearestCarDispatchStrategy;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.FloorOrderIndex;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.time.VirtualTimeSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DemandParkingPolicyTest {
+
+  private static final long SLOT_MILLIS = 900_000;
+  private static final long HALF_LIFE_MILLIS = 300_000;
+
+  VirtualTimeSource clock;
+  ElevatorBank bank;
+  CallHistory history;
+  DemandParkingPolicy policy;
+
+  @BeforeEach
+  void setUp() {
+    clock = new VirtualTimeSource();
+    bank = new ElevatorBank(3, 20, 1, 3, new NearestCarDispatchStrategy(), clock);
+    history = new CallHistory(20, SLOT_MILLIS, HALF_LIFE_MILLIS);
+    policy = new DemandParkingPolicy(bank, clock, history);
+    for (Elevator car : bank.getElevators()) {
+      car.setCurrentFloor(5);
+    }
+  }
+
+  @Test
+  void sharesCarsOutByDemand() {
+    record(1, 8);
+    record(10, 3);
+
+    assertThat(policy.park(bank.getElevator(0))).isTrue();
+    assertThat(policy.park(bank.getElevator(1))).isTrue();
+    assertThat(policy.park(bank.getElevator(2))).isTrue();
+
+    assertThat(bank.getElevator(0).getOrders().contains(1, OrderType.NEUTRAL)).isTrue();
+    assertThat(bank.getElevator(1).getOrders().contains(1, OrderType.NEUTRAL)).isTrue();
+    assertThat(bank.getElevator(2).getOrders().contains(10, OrderType.NEUTRAL)).isTrue();
+  }
+
+  @Test
+  void leavesCarsWhereTheyAreWithoutDemandElsewhere() {
+    assertThat(policy.parkingFloor(bank.getElevator(0))).isEqualTo(FloorOrderIndex.NONE);
+
+    record(5, 4);
+
+    // The first car keeps floor 5, the others have nowhere else to go
+    assertThat(policy.parkingFloor(bank.getElevator(0))).isEqualTo(FloorOrderIndex.NONE);
+    assertThat(policy.parkingFloor(bank.getElevator(2))).isEqualTo(FloorOrderIndex.NONE);
+  }
+
+  @Test
+  void hallCallReplacesTheTripToTheParkingFloor() {
+    record(1, 2);
+    Elevator car = bank.getElevator(0);
+    policy.park(car);
+
+    car.addOrder(12, OrderType.DOWN);
+
+    assertThat(car.getOrders().contains(1, OrderType.NEUTRAL)).isFalse();
+    assertThat(car.getOrders().contains(12, OrderType.DOWN)).isTrue();
+  }
+
+  @Test
+  void historyKeepsTimeOfDayAndForgetsRecentCalls() {
+    long eightOClock = 8 * 3_600_000L;
+    history.record(1, eightOClock);
+    history.record(1, eightOClock);
+
+    // Recent calls halve every half-life
+    assertThat(history.demand(eightOClock + HALF_LIFE_MILLIS)[1]).isCloseTo(2 + 1, within(1e-9));
+    // The next morning, only the slot remains
+    assertThat(history.demand(eightOClock + CallHistory.DAY_MILLIS)[1]).isCloseTo(2, within(1e-6));
+    assertThat(history.demand(eightOClock + CallHistory.DAY_MILLIS + SLOT_MILLIS)[1])
+        .isCloseTo(0, within(1e-6));
+    // Two days later it counts half
+    assertThat(history.demand(eightOClock + 2 * CallHistory.DAY_MILLIS)[1])
+        .isCloseTo(1, within(1e-6));
+  }
+
+  private void record(int floor, int calls) {
+    for (int i = 0; i < calls; i++) {
+      history.record(floor, clock.currentTimeMillis());
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package com.example.elevator.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.dispatch.NearestCarDispatchStrategy;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorListener;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.journal.OrderJournal;
+import com.example.elevator.service.ElevatorService;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.SystemTimeSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ElevatorSchedulerTest {
+
+  ElevatorBank bank;
+  ElevatorScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    bank = new ElevatorBank(4, 20, 0, 0, new NearestCarDispatchStrategy(),
+        new SystemTimeSource());
+    scheduler = new ElevatorScheduler(bank, 1, new SimpleMeterRegistry());
+    scheduler.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.shutdown();
+  }
+
+  @Test
+  void orderWakesCarWithoutPolling() {
+    bank.getElevator(2).addOrder(15, OrderType.NEUTRAL);
+
+    Awaitility.await().atMost(Duration.ofMillis(500))
+        .until(() -> bank.getElevator(2).getCurrentFloor() == 15);
+
+    assertThat(bank.getElevator(2).getState()).isEqualTo(ElevatorState.IDLE);
+    assertThat(bank.getElevator(2).getOrders().isEmpty()).isTrue();
+  }
+
+  @Test
+  void manyCarsShareOneThread() {
+    for (int id = 0; id < 4; id++) {
+      bank.getElevator(id).addOrder(10 + id, OrderType.NEUTRAL);
+    }
+
+    Awaitility.await().atMost(Duration.ofSeconds(1))
+        .until(() -> bank.getElevators().stream()
+            .allMatch(elevator -> elevator.getCurrentFloor() == 10 + elevator.getId()
+                && ElevatorState.IDLE.equals(elevator.getState())));
+  }
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void emergencyBreakHaltsEveryCarWithinBound() {
+    ElevatorBank moving = movingBank();
+    ElevatorScheduler movingScheduler = new ElevatorScheduler(moving, 2,
+        new SimpleMeterRegistry());
+    ElevatorService service = new ElevatorService(moving, new EstimatedTimeCalculator());
+    AtomicIntegerArray notifiedFloors = new AtomicIntegerArray(16);
+    for (Elevator elevator : moving.getElevators()) {
+      elevator.addListener(new ElevatorListener() {
+        @Override
+        public void onFloorReached(Elevator elevator, int floor) {
+          notifiedFloors.set(elevator.getId(), floor);
+        }
+      });
+    }
+    movingScheduler.start();
+    try {
+      Awaitility.await().atMost(Duration.ofSeconds(1))
+          .until(() -> moving.getElevators().stream()
+              .allMatch(elevator -> elevator.getCurrentFloor() > 1));
+
+      long startNanos = System.nanoTime();
+      service.doEmergencyBreak();
+      long haltedNanos = System.nanoTime();
+
+      assertThat(TimeUnit.NANOSECONDS.toMillis(haltedNanos - startNanos)).isLessThan(50);
+      assertThat(moving.getElevators())
+          .allMatch(elevator -> ElevatorState.EMERGENCY_BREAK.equals(elevator.getState()));
+      int[] floors = moving.getElevators().stream().mapToInt(Elevator::getCurrentFloor).toArray();
+      Awaitility.await().pollDelay(Duration.ofMillis(200)).until(() -> true);
+      // No car reached a floor after the break returned
+      assertThat(moving.getElevators().stream().mapToInt(Elevator::getCurrentFloor).toArray())
+          .isEqualTo(floors);
+      for (int id = 0; id < 16; id++) {
+        assertThat(notifiedFloors.get(id)).isEqualTo(floors[id]);
+      }
+
+      assertThat(service.resume()).isEqualTo(16);
+      service.addDestinationFloor(50, OrderType.NEUTRAL, 3);
+      Awaitility.await().atMost(Duration.ofSeconds(1))
+          .until(() -> moving.getElevator(3).getCurrentFloor() == 50);
+    } finally {
+      movingScheduler.shutdown();
+    }
+  }
+
+  @Test
+  void emergencyBreakIsNotHeldUpByListeners() throws IOException {
+    ElevatorBank moving = movingBank();
+    ElevatorScheduler movingScheduler = new ElevatorScheduler(moving, 2,
+        new SimpleMeterRegistry());
+    ElevatorService service = new ElevatorService(moving, new EstimatedTimeCalculator());
+    OrderJournal journal = new OrderJournal(moving, directory, 1 << 16, 0);
+    journal.start();
+    for (Elevator elevator : moving.getElevators()) {
+      elevator.addListener(new ElevatorListener() {
+        @Override
+        public void onStateChanged(Elevator elevator, ElevatorState state) {
+          if (ElevatorState.EMERGENCY_BREAK.equals(state)) {
+            // A listener far slower than the bound for braking all cars
+            Awaitility.await().pollDelay(Duration.ofMillis(10)).until(() -> true);
+          }
+        }
+      });
+    }
+    movingScheduler.start();
+    try {
+      Awaitility.await().atMost(Duration.ofSeconds(1))
+          .until(() -> moving.getElevators().stream()
+              .allMatch(elevator -> elevator.getCurrentFloor() > 1));
+
+      long startNanos = System.nanoTime();
+      CompletableFuture<Void> breaking = CompletableFuture.runAsync(service::doEmergencyBreak);
+      Awaitility.await().atMost(Duration.ofSeconds(1)).pollInterval(Duration.ofMillis(1))
+          .until(() -> moving.getElevators().stream()
+              .allMatch(elevator -> ElevatorState.EMERGENCY_BREAK.equals(elevator.getState())));
+      long haltedNanos = System.nanoTime();
+
+      assertThat(TimeUnit.NANOSECONDS.toMillis(haltedNanos - startNanos)).isLessThan(50);
+      breaking.join();
+      // The break was journaled once listeners were told
+      journal.close();
+      ElevatorBank restarted = new ElevatorBank(16, 50, 0, 0, new NearestCarDispatchStrategy(),
+          new SystemTimeSource());
+      new OrderJournal(restarted, directory, 1 << 16, 0).start();
+      assertThat(restarted.getElevators())
+          .allMatch(elevator -> ElevatorState.EMERGENCY_BREAK.equals(elevator.getState()));
+    } finally {
+      movingScheduler.shutdown();
+    }
+  }
+
+  /**
+   * Returns a bank of cars that keep going up and down until the break.
+   */
+  private static ElevatorBank movingBank() {
+    ElevatorBank moving = new ElevatorBank(16, 50, 0, 0, new NearestCarDispatchStrategy(),
+        new SystemTimeSource());
+    for (Elevator elevator : moving.getElevators()) {
+      for (int floor = 2; floor <= 50; floor++) {
+        elevator.addOrder(floor, floor % 2 == 0 ? OrderType.UP : OrderType.DOWN);
+      }
+    }
+    return moving;
+  }
+}
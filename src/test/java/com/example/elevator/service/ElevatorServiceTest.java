@@ -1,15 +1,22 @@
 package com.example.elevator.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.example.elevator.dispatch.EstimatedTimeDispatchStrategy;
+import com.example.elevator.dto.OrderRequest;
+import com.example.elevator.dto.OrderResponse;
 import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
 import com.example.elevator.elevator.ElevatorState;
-import java.util.HashSet;
-import java.util.Set;
+import com.example.elevator.elevator.LoadModel;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.exception.InvalidFloorException;
+import com.example.elevator.time.VirtualTimeSource;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -17,10 +24,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class ElevatorServiceTest {
 
-  @Mock
   Elevator elevator;
 
-  @InjectMocks
+  @Mock
+  ElevatorBank bank;
+
   ElevatorService service;
 
   private static final int FLOOR_TIME = 1;
@@ -28,15 +36,16 @@ class ElevatorServiceTest {
 
   @BeforeEach
   void setUp() {
-    Mockito.when(elevator.getFloorTimeInSeconds()).thenReturn(FLOOR_TIME);
-    Mockito.when(elevator.getDoorOpeningTimeInSeconds()).thenReturn(DOOR_OPENING_TIME);
-    Mockito.when(elevator.getTotalFloors()).thenReturn(10);
+    elevator = new Elevator(0, 10, FLOOR_TIME, DOOR_OPENING_TIME, new VirtualTimeSource());
+    Mockito.lenient().when(bank.getTotalFloors()).thenReturn(10);
+    Mockito.lenient().when(bank.getElevators()).thenReturn(List.of(elevator));
+    service = new ElevatorService(bank, new EstimatedTimeCalculator());
   }
 
   @Test
   void getEstimatedFloorTimeInSeconds_givenIdle() {
-    Mockito.when(elevator.getCurrentFloor()).thenReturn(1);
-    Mockito.when(elevator.getState()).thenReturn(ElevatorState.IDLE);
+    elevator.setCurrentFloor(1);
+    elevator.setState(ElevatorState.IDLE);
 
     int estimatedTime = service.getEstimatedTimeToFloor(10);
 
@@ -46,10 +55,8 @@ class ElevatorServiceTest {
 
   @Test
   void getEstimatedFloorTimeInSeconds_givenGoingUp() {
-    Mockito.when(elevator.getCurrentFloor()).thenReturn(1);
-    Mockito.when(elevator.getState()).thenReturn(ElevatorState.GOING_UP);
-    Mockito.when(elevator.getOrdersUp()).thenReturn(new HashSet<>());
-    Mockito.when(elevator.getOrdersNeutral()).thenReturn(new HashSet<>());
+    elevator.setCurrentFloor(1);
+    elevator.setState(ElevatorState.GOING_UP);
 
     int estimatedTime = service.getEstimatedTimeToFloor(10);
 
@@ -58,13 +65,11 @@ class ElevatorServiceTest {
 
   @Test
   void getEstimatedFloorTimeInSeconds_givenGoingUpThenDown() {
-    Mockito.when(elevator.getCurrentFloor()).thenReturn(6);
-    Mockito.when(elevator.getState()).thenReturn(ElevatorState.GOING_UP);
-    Mockito.when(elevator.getOrdersUp()).thenReturn(new HashSet<>(Set.of(2,3,7)));
-    Mockito.when(elevator.getOrdersDown()).thenReturn(new HashSet<>(Set.of(3,5)));
-    Mockito.when(elevator.getOrdersNeutral()).thenReturn(new HashSet<>(Set.of(3,4,5)));
-    Mockito.when(elevator.getHighestOrderedStop()).thenReturn(7);
-
+    elevator.setCurrentFloor(6);
+    elevator.setState(ElevatorState.GOING_UP);
+    addOrders(OrderType.UP, 2, 3, 7);
+    addOrders(OrderType.DOWN, 3, 5);
+    addOrders(OrderType.NEUTRAL, 3, 4, 5);
 
     int estimatedTime = service.getEstimatedTimeToFloor(2);
 
@@ -72,12 +77,24 @@ class ElevatorServiceTest {
     assertThat(estimatedTime).isEqualTo(6 * FLOOR_TIME + 6 * DOOR_OPENING_TIME);
   }
 
+  @Test
+  void getEstimatedFloorTimeInSeconds_givenPassengersOnBoard() {
+    elevator.setLoadModel(new LoadModel(8, 1000));
+    elevator.setCurrentFloor(1);
+    elevator.setState(ElevatorState.GOING_UP);
+    addOrders(OrderType.NEUTRAL, 3, 6);
+    elevator.transfer(0, 6);
+
+    int estimatedTime = service.getEstimatedTimeToFloor(10);
+
+    // Three passengers leave at each of the two stops
+    assertThat(estimatedTime).isEqualTo(9 * FLOOR_TIME + 2 * (DOOR_OPENING_TIME + 3));
+  }
+
   @Test
   void getEstimatedFloorTimeInSeconds_givenGoingDown() {
-    Mockito.when(elevator.getCurrentFloor()).thenReturn(10);
-    Mockito.when(elevator.getState()).thenReturn(ElevatorState.GOING_DOWN);
-    Mockito.when(elevator.getOrdersDown()).thenReturn(new HashSet<>());
-    Mockito.when(elevator.getOrdersNeutral()).thenReturn(new HashSet<>());
+    elevator.setCurrentFloor(10);
+    elevator.setState(ElevatorState.GOING_DOWN);
 
     int estimatedTime = service.getEstimatedTimeToFloor(1);
 
@@ -86,13 +103,11 @@ class ElevatorServiceTest {
 
   @Test
   void getEstimatedFloorTimeInSeconds_givenGoingDownThenUp() {
-    Mockito.when(elevator.getCurrentFloor()).thenReturn(6);
-    Mockito.when(elevator.getState()).thenReturn(ElevatorState.GOING_DOWN);
-    Mockito.when(elevator.getOrdersUp()).thenReturn(new HashSet<>(Set.of(2,3,5)));
-    Mockito.when(elevator.getOrdersDown()).thenReturn(new HashSet<>(Set.of(3,7)));
-    Mockito.when(elevator.getOrdersNeutral()).thenReturn(new HashSet<>(Set.of(3,4,5)));
-    Mockito.when(elevator.getLowestOrderedStop()).thenReturn(2);
-
+    elevator.setCurrentFloor(6);
+    elevator.setState(ElevatorState.GOING_DOWN);
+    addOrders(OrderType.UP, 2, 3, 5);
+    addOrders(OrderType.DOWN, 3, 7);
+    addOrders(OrderType.NEUTRAL, 3, 4, 5);
 
     int estimatedTime = service.getEstimatedTimeToFloor(8);
 
@@ -100,4 +115,67 @@ class ElevatorServiceTest {
     assertThat(estimatedTime).isEqualTo(10 * FLOOR_TIME + 7 * DOOR_OPENING_TIME);
   }
 
-}
\ No newline at end of file
+  @Test
+  void getEstimatedTimes_givenOrderChange() {
+    elevator.setCurrentFloor(1);
+    elevator.setState(ElevatorState.GOING_UP);
+
+    assertThat(service.getEstimatedTimes()[4]).isEqualTo(4 * FLOOR_TIME);
+
+    addOrders(OrderType.NEUTRAL, 3);
+
+    assertThat(service.getEstimatedTimes())
+        .startsWith(0, FLOOR_TIME, 2 * FLOOR_TIME + DOOR_OPENING_TIME,
+            3 * FLOOR_TIME + DOOR_OPENING_TIME);
+  }
+
+  @Test
+  void addDestinationFloors_givenBatch() {
+    Mockito.when(bank.assign(Mockito.anyInt(), Mockito.any(), Mockito.any()))
+        .thenReturn(elevator);
+
+    List<OrderResponse> responses = service.addDestinationFloors(List.of(
+        new OrderRequest(OrderType.UP, 3),
+        new OrderRequest(OrderType.DOWN, 7),
+        new OrderRequest(OrderType.UP, 5)));
+
+    assertThat(elevator.getOrders().get(OrderType.UP).stream()).containsExactly(3, 5);
+    assertThat(elevator.getOrders().get(OrderType.DOWN).stream()).containsExactly(7);
+    assertThat(responses).extracting(OrderResponse::getEstimatedTimeInSeconds)
+        .containsExactly(2 * FLOOR_TIME, 6 * FLOOR_TIME, 4 * FLOOR_TIME);
+  }
+
+  @Test
+  void addDestinationFloors_givenInvalidFloorAddsNothing() {
+    List<OrderRequest> requests = List.of(
+        new OrderRequest(OrderType.UP, 3),
+        new OrderRequest(OrderType.DOWN, 11));
+
+    assertThatThrownBy(() -> service.addDestinationFloors(requests))
+        .isInstanceOf(InvalidFloorException.class);
+    Mockito.verify(bank, Mockito.never()).assign(Mockito.anyInt(), Mockito.any(), Mockito.any());
+    assertThat(elevator.getOrders().isEmpty()).isTrue();
+  }
+
+  @Test
+  void addDestinationFloors_givenIdleCarsSpreadsBatch() {
+    EstimatedTimeCalculator calculator = new EstimatedTimeCalculator();
+    ElevatorBank idleBank = new ElevatorBank(2, 10, FLOOR_TIME, DOOR_OPENING_TIME,
+        new EstimatedTimeDispatchStrategy(calculator), new VirtualTimeSource());
+
+    List<OrderResponse> responses = new ElevatorService(idleBank, calculator)
+        .addDestinationFloors(List.of(
+            new OrderRequest(OrderType.UP, 5),
+            new OrderRequest(OrderType.UP, 6),
+            new OrderRequest(OrderType.DOWN, 8),
+            new OrderRequest(OrderType.DOWN, 9)));
+
+    assertThat(responses).extracting(OrderResponse::getElevator).containsExactly(0, 1, 0, 1);
+  }
+
+  private void addOrders(OrderType orderType, int... floors) {
+    for (int floor : floors) {
+      elevator.addOrder(floor, orderType);
+    }
+  }
+}
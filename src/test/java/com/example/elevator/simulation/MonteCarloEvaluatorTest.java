@@ -0,0 +1,78 @@
+package com.example.elevator.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.dispatch.DispatchStrategyType;
+import com.example.elevator.dispatch.EnergySavingDispatchStrategy;
+import com.example.elevator.elevator.LoadModel;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class MonteCarloEvaluatorTest {
+
+  private static final long HALF_HOUR_MILLIS = 1_800_000;
+
+  @Test
+  void moreCarsShortenWaits() {
+    List<SimulationScenario> scenarios = IntStream.of(2, 4)
+        .mapToObj(cars -> scenario(cars, DispatchStrategyType.ESTIMATED_TIME))
+        .collect(Collectors.toList());
+
+    List<ScenarioReport> reports = new MonteCarloEvaluator(HALF_HOUR_MILLIS)
+        .evaluate(scenarios, 6, 1);
+
+    assertThat(reports).extracting(ScenarioReport::getScenario).isEqualTo(scenarios);
+    assertThat(reports).allSatisfy(report -> {
+      assertThat(report.getRuns()).isEqualTo(6);
+      assertThat(report.getDelivered()).isEqualTo(report.getPassengers()).isPositive();
+      assertThat(report.getP50WaitSeconds()).isLessThanOrEqualTo(report.getP90WaitSeconds());
+      assertThat(report.getP90WaitSeconds()).isLessThanOrEqualTo(report.getP99WaitSeconds());
+    });
+    ScenarioReport two = reports.get(0);
+    ScenarioReport four = reports.get(1);
+    // Same passengers for both, so the difference is well beyond the run to run noise
+    assertThat(two.getPassengers()).isEqualTo(four.getPassengers());
+    assertThat(four.getAverageWaitSeconds() + 2 * four.getAverageWaitStandardErrorSeconds())
+        .isLessThan(two.getAverageWaitSeconds() - 2 * two.getAverageWaitStandardErrorSeconds());
+  }
+
+  @Test
+  void energySavingTradesBoundedWaitForEnergy() {
+    List<SimulationScenario> scenarios = List.of(
+        scenario(4, DispatchStrategyType.ESTIMATED_TIME),
+        scenario(4, DispatchStrategyType.ENERGY_SAVING));
+
+    List<ScenarioReport> reports = new MonteCarloEvaluator(HALF_HOUR_MILLIS)
+        .evaluate(scenarios, 6, 1);
+
+    ScenarioReport fastest = reports.get(0);
+    ScenarioReport saving = reports.get(1);
+    assertThat(saving.getDelivered()).isEqualTo(saving.getPassengers());
+    assertThat(saving.getEnergyKilowattHours())
+        .isLessThan(0.95 * fastest.getEnergyKilowattHours());
+    assertThat(saving.getAverageWaitSeconds()).isLessThan(fastest.getAverageWaitSeconds()
+        + EnergySavingDispatchStrategy.DEFAULT_MAX_EXTRA_WAIT_SECONDS);
+  }
+
+  @Test
+  void reportsDoNotDependOnParallelism() {
+    List<SimulationScenario> scenarios = List.of(
+        scenario(3, DispatchStrategyType.NEAREST_CAR),
+        scenario(3, DispatchStrategyType.ZONING));
+
+    List<ScenarioReport> sequential = new MonteCarloEvaluator(new ForkJoinPool(1),
+        HALF_HOUR_MILLIS).evaluate(scenarios, 4, 7);
+    List<ScenarioReport> parallel = new MonteCarloEvaluator(new ForkJoinPool(4),
+        HALF_HOUR_MILLIS).evaluate(scenarios, 4, 7);
+
+    assertThat(parallel).isEqualTo(sequential);
+  }
+
+  private static SimulationScenario scenario(int cars, DispatchStrategyType dispatchStrategy) {
+    return new SimulationScenario(cars, 12, 2, 5, new LoadModel(13, 1000), dispatchStrategy,
+        false, TrafficPattern.UP_PEAK, 600);
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.elevator.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.elevator.dispatch.NearestCarDispatchStrategy;
+import com.example.elevator.elevator.Elevator;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.ElevatorState;
+import com.example.elevator.elevator.OrderType;
+import com.example.elevator.time.VirtualTimeSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SimulationTest {
+
+  private static final int FLOOR_TIME = 2;
+  private static final int DOOR_OPENING_TIME = 5;
+
+  VirtualTimeSource clock;
+  Simulation simulation;
+
+  @BeforeEach
+  void setUp() {
+    clock = new VirtualTimeSource();
+    ElevatorBank bank = new ElevatorBank(2, 20, FLOOR_TIME, DOOR_OPENING_TIME,
+        new NearestCarDispatchStrategy(), clock);
+    simulation = new Simulation(bank, clock);
+  }
+
+  @Test
+  void tripTakesTravelAndDoorTimeInVirtualTime() {
+    simulation.addOrder(1_000, 10, OrderType.NEUTRAL, 0);
+
+    simulation.run();
+
+    Elevator elevator = simulation.getBank().getElevator(0);
+    assertThat(elevator.getCurrentFloor()).isEqualTo(10);
+    assertThat(elevator.getState()).isEqualTo(ElevatorState.IDLE);
+    // Order at 1s, nine floors of travel, door open on arrival
+    assertThat(clock.currentTimeMillis())
+        .isEqualTo(1_000 + 9 * FLOOR_TIME * 1000L + DOOR_OPENING_TIME * 1000L);
+  }
+
+  @Test
+  void callOnFloorOfIdleCarOpensDoor() {
+    simulation.addOrder(0, 1, OrderType.UP);
+
+    simulation.run();
+
+    Elevator elevator = simulation.getBank().getElevator(0);
+    assertThat(elevator.getOrders().isEmpty()).isTrue();
+    assertThat(clock.currentTimeMillis()).isEqualTo(DOOR_OPENING_TIME * 1000L);
+  }
+
+  @Test
+  void runUntilStopsAtGivenTime() {
+    simulation.addOrder(0, 20, OrderType.NEUTRAL, 1);
+
+    simulation.runUntil(10_000);
+
+    assertThat(clock.currentTimeMillis()).isEqualTo(10_000);
+    assertThat(simulation.getBank().getElevator(1).getCurrentFloor()).isEqualTo(6);
+
+    simulation.run();
+
+    assertThat(simulation.getBank().getElevator(1).getCurrentFloor()).isEqualTo(20);
+  }
+}
@@ -0,0 +1,151 @@
+package com.example.elevator.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.example.elevator.dispatch.NearestCarDispatchStrategy;
+import com.example.elevator.elevator.ElevatorBank;
+import com.example.elevator.elevator.LoadModel;
+import com.example.elevator.parking.CallHistory;
+import com.example.elevator.parking.DemandParkingPolicy;
+import com.example.elevator.parking.ParkingPolicy;
+import com.example.elevator.service.ElevatorService;
+import com.example.elevator.service.EstimatedTimeCalculator;
+import com.example.elevator.time.VirtualTimeSource;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TrafficReplayTest {
+
+  private static final int FLOOR_TIME = 2;
+  private static final int DOOR_OPENING_TIME = 5;
+
+  @Test
+  void replaysRecordedCalls() {
+    List<PassengerCall> calls = CallLog.read(new StringReader(
+        CallLog.HEADER + "\n# one passenger up from the lobby\n0,1,5\n"));
+
+    TrafficReport report = replay(1, 10, calls);
+
+    assertThat(report.getDelivered()).isEqualTo(1);
+    // The idle car is on the lobby, its door opens right away
+    assertThat(report.getAverageWaitSeconds()).isZero();
+    // Door time in the lobby, then four floors
+    assertThat(report.getAverageTripSeconds()).isEqualTo(DOOR_OPENING_TIME + 4 * FLOOR_TIME);
+  }
+
+  @Test
+  void upPeakHourDeliversEveryone() {
+    List<PassengerCall> calls = new WorkloadGenerator(TrafficPattern.UP_PEAK, 300, 12, 42)
+        .generate(0, 3_600_000);
+
+    TrafficReport report = replay(3, 12, calls);
+
+    assertThat(report.getDelivered()).isEqualTo(report.getPassengers()).isPositive();
+    assertThat(report.getP50WaitSeconds()).isLessThanOrEqualTo(report.getP90WaitSeconds());
+    assertThat(report.getP90WaitSeconds()).isLessThanOrEqualTo(report.getP99WaitSeconds());
+    assertThat(report.getAverageTripSeconds()).isGreaterThan(report.getAverageWaitSeconds());
+    assertThat(report.getPassengersPerHour()).isCloseTo(300, within(60.0));
+  }
+
+  @Test
+  void parkingIdleCarsShortensUpPeakWaits() {
+    List<PassengerCall> calls = new WorkloadGenerator(TrafficPattern.UP_PEAK, 200, 20, 1)
+        .generate(8 * 3_600_000L, 3_600_000);
+
+    TrafficReport staying = replay(3, 20, calls);
+    TrafficReport parked = replayWithParking(3, 20, calls);
+
+    assertThat(parked.getDelivered()).isEqualTo(parked.getPassengers());
+    assertThat(parked.getAverageWaitSeconds()).isLessThan(0.8 * staying.getAverageWaitSeconds());
+  }
+
+  @Test
+  void fullCarsLeavePassengersForTheNextCar() {
+    List<PassengerCall> calls = new WorkloadGenerator(TrafficPattern.UP_PEAK, 900, 12, 5)
+        .generate(0, 1_800_000);
+
+    TrafficReport unlimited = replay(2, 12, calls);
+    TrafficReport limited = replay(2, 12, calls, new LoadModel(4, 1000));
+
+    assertThat(limited.getDelivered()).isEqualTo(limited.getPassengers());
+    assertThat(limited.getAverageWaitSeconds()).isGreaterThan(unlimited.getAverageWaitSeconds());
+  }
+
+  @Test
+  void destinationDispatchGroupsUpPeakPassengers() {
+    List<PassengerCall> calls = new WorkloadGenerator(TrafficPattern.UP_PEAK, 900, 16, 1)
+        .generate(0, 3_600_000);
+    LoadModel loadModel = new LoadModel(13, 1000);
+
+    TrafficReport hallCalls = replay(3, 16, calls, loadModel);
+    TrafficReport destinations = replay(3, 16, calls, loadModel, true);
+
+    assertThat(destinations.getDelivered()).isEqualTo(destinations.getPassengers());
+    assertThat(destinations.getStops()).isLessThan(hallCalls.getStops());
+    assertThat(destinations.getAverageTripSeconds())
+        .isLessThan(0.9 * hallCalls.getAverageTripSeconds());
+  }
+
+  @Test
+  void generatorFollowsPatternAndWeights() {
+    double[] weights = {0, 1, 0, 3};
+    List<PassengerCall> calls = new WorkloadGenerator(TrafficPattern.UP_PEAK, 1000, weights, 7)
+        .generate(0, 3_600_000);
+
+    assertThat(calls).hasSizeBetween(900, 1100);
+    assertThat(calls).isSortedAccordingTo((a, b) -> Long.compare(a.getTimeMillis(),
+        b.getTimeMillis()));
+    assertThat(calls).noneMatch(call -> call.getOrigin() == 3 || call.getDestination() == 3)
+        .noneMatch(call -> call.getOrigin() == call.getDestination());
+    long incoming = calls.stream().filter(call -> call.getOrigin() == 1).count();
+    assertThat(incoming / (double) calls.size()).isCloseTo(0.85, within(0.05));
+    long toTop = calls.stream().filter(call -> call.getDestination() == 4).count();
+    long toSecond = calls.stream().filter(call -> call.getDestination() == 2).count();
+    assertThat(toTop).isGreaterThan(2 * toSecond);
+  }
+
+  @Test
+  void callLogRoundTrips() {
+    List<PassengerCall> calls = new WorkloadGenerator(TrafficPattern.LUNCH, 600, 8, 1)
+        .generate(0, 600_000);
+    StringWriter log = new StringWriter();
+
+    CallLog.write(calls, log);
+
+    assertThat(CallLog.read(new StringReader(log.toString()))).isEqualTo(calls);
+  }
+
+  private static TrafficReport replay(int cars, int floors, List<PassengerCall> calls) {
+    return replay(cars, floors, calls, LoadModel.UNLIMITED);
+  }
+
+  private static TrafficReport replay(int cars, int floors, List<PassengerCall> calls,
+      LoadModel loadModel) {
+    return replay(cars, floors, calls, loadModel, false);
+  }
+
+  private static TrafficReport replay(int cars, int floors, List<PassengerCall> calls,
+      LoadModel loadModel, boolean destinationDispatch) {
+    VirtualTimeSource clock = new VirtualTimeSource();
+    ElevatorBank bank = new ElevatorBank(cars, floors, FLOOR_TIME, DOOR_OPENING_TIME,
+        new NearestCarDispatchStrategy(), clock);
+    bank.setLoadModel(loadModel);
+    Simulation simulation = new Simulation(bank, clock);
+    ElevatorService service = new ElevatorService(bank, new EstimatedTimeCalculator());
+    return new TrafficReplay(simulation, service, null, 0, destinationDispatch).run(calls);
+  }
+
+  private static TrafficReport replayWithParking(int cars, int floors, List<PassengerCall> calls) {
+    VirtualTimeSource clock = new VirtualTimeSource();
+    ElevatorBank bank = new ElevatorBank(cars, floors, FLOOR_TIME, DOOR_OPENING_TIME,
+        new NearestCarDispatchStrategy(), clock);
+    Simulation simulation = new Simulation(bank, clock);
+    ElevatorService service = new ElevatorService(bank, new EstimatedTimeCalculator());
+    ParkingPolicy parking = new DemandParkingPolicy(bank, clock,
+        new CallHistory(floors, 900_000, 300_000));
+    return new TrafficReplay(simulation, service, parking, 10_000).run(calls);
+  }
+}